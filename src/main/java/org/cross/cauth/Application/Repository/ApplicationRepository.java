@@ -1,8 +1,13 @@
 package org.cross.cauth.Application.Repository;
 
 import org.cross.cauth.Application.domain.Application;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,7 +21,19 @@ public interface ApplicationRepository extends JpaRepository<Application, UUID>
 
     List<Application> findByOwnerEmail(String ownerEmail);
 
+    List<Application> findByIdGreaterThanOrderByIdAsc(UUID after, Limit limit);
+
     boolean existsByAppId(String appId);
 
     void deleteByAppId(String appId);
+
+    /**
+     * Replaces the app secret hash only if it is still the one that was read,
+     * so a rehash never overwrites a secret rotated in the meantime
+     * @return number of updated rows
+     */
+    @Transactional
+    @Modifying
+    @Query("update Application a set a.appSecret = :newHash where a.appId = :appId and a.appSecret = :oldHash")
+    int replaceAppSecret(@Param("appId") String appId, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
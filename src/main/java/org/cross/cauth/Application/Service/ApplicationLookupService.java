@@ -0,0 +1,77 @@
+package org.cross.cauth.Application.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.cross.cauth.Application.Repository.ApplicationRepository;
+import org.cross.cauth.Application.dto.ApplicationSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cached application lookups by app id, so signups, app verification and app reads do not query applications every time.
+ * Only hits are cached: an app registered a moment ago is never reported missing.
+ */
+@Service
+public class ApplicationLookupService {
+    private final ApplicationRepository applicationRepository;
+    private final Cache<String, ApplicationSnapshot> applications;
+
+    public ApplicationLookupService(
+            ApplicationRepository applicationRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.application-cache.max-size:10000}") long maxSize,
+            @Value("${app.application-cache.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.applicationRepository = applicationRepository;
+        this.applications = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, applications, "applications");
+    }
+
+    /**
+     * @param appId applications unique app id
+     * @return snapshot of the app, a changed or deleted app may be served for up to the configured ttl on other nodes
+     */
+    public Optional<ApplicationSnapshot> find(String appId){
+        if(appId == null){
+            return Optional.empty();
+        }
+
+        ApplicationSnapshot cached = applications.getIfPresent(appId);
+        if(cached != null){
+            return Optional.of(cached);
+        }
+
+        Optional<ApplicationSnapshot> loaded = applicationRepository.findByAppId(appId).map(ApplicationSnapshot::of);
+        loaded.ifPresent(snapshot -> applications.put(appId, snapshot));
+
+        return loaded;
+    }
+
+    /**
+     * @param appId applications unique app id
+     * @return <code>true</code> if the app exists
+     */
+    public boolean exists(String appId){
+        return find(appId).isPresent();
+    }
+
+    /**
+     * Call after updating or deleting an app
+     * @param appId applications unique app id
+     */
+    public void invalidate(String appId){
+        if(appId != null){
+            applications.invalidate(appId);
+        }
+    }
+}
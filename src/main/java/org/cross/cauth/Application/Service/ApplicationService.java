@@ -2,10 +2,12 @@ package org.cross.cauth.Application.Service;
 
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.cross.cauth.CursorPage;
 import org.cross.cauth.Application.Repository.ApplicationRepository;
 import org.cross.cauth.Application.domain.Application;
 import org.cross.cauth.Application.dto.ApplicationRequestDto;
 import org.cross.cauth.Application.dto.ApplicationResponseDto;
+import org.cross.cauth.Application.dto.ApplicationSnapshot;
 import org.cross.cauth.Application.mapper.ApplicationMapper;
 import org.cross.cauth.Exception.ApplicationAlreadyExistsException;
 import org.cross.cauth.Exception.ApplicationNotFoundException;
@@ -13,7 +15,11 @@ import org.cross.cauth.Exception.UserNotFoundException;
 import org.cross.cauth.Jwt.JwtSecretService;
 import org.cross.cauth.Organization.OrganizationService;
 import org.cross.cauth.utils.CredentialSecurityManager;
+import org.cross.cauth.utils.PageCursor;
 import org.cross.cauth.utils.UniqueIdGenerator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,22 +31,36 @@ import java.util.Map;
 @Data
 @RequiredArgsConstructor
 public class ApplicationService {
+    private static final int APP_SECRET_LENGTH = 48;
+
     private final ApplicationRepository applicationRepository;
     private final JwtSecretService jwtSecretService;
     private final OrganizationService organizationService;
+    private final ApplicationLookupService applicationLookupService;
     private final CredentialSecurityManager securityManager;
+    @Qualifier("appSecretEncoder")
+    private final CredentialSecurityManager appSecretEncoder;
     private final UniqueIdGenerator appIdGenerator;
 
+    @Value("${app.pagination.max-page-size:200}")
+    private int maxPageSize;
+
     /**
-     * Get all registered applications
-     * @return List of all appId
+     * Get a page of registered applications, ordered by id
+     * @param cursor cursor of the previous page, <code>null</code> for the first page
+     * @param size page size, capped at the configured maximum
+     * @return CursorPage of applications
      */
     @Transactional(readOnly = true)
-    public List<ApplicationResponseDto> getAllApplications(){
-        return applicationRepository.findAll()
-                .stream()
-                .map(ApplicationMapper::toResponseDto)
-                .toList();
+    public CursorPage<ApplicationResponseDto> getAllApplications(String cursor, int size){
+        int pageSize = PageCursor.clampSize(size, maxPageSize);
+
+        return CursorPage.of(
+                applicationRepository.findByIdGreaterThanOrderByIdAsc(PageCursor.decode(cursor), Limit.of(pageSize + 1)),
+                pageSize,
+                Application::getId,
+                ApplicationMapper::toResponseDto
+        );
     }
 
     /**
@@ -54,10 +74,18 @@ public class ApplicationService {
         return applicationRepository.findByAppId(appId).orElseThrow(() -> new ApplicationNotFoundException("Invalid app id"));
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Cached application lookup
+     * @param appId applications unique app id
+     * @return ApplicationSnapshot
+     * @throws ApplicationNotFoundException if app id is invalid
+     */
+    public ApplicationSnapshot getApplicationSnapshotByAppId(String appId){
+        return applicationLookupService.find(appId).orElseThrow(() -> new ApplicationNotFoundException("Invalid app id"));
+    }
+
     public ApplicationResponseDto getApplicationDtoByAppId(String appId){
-        Application app =  getApplicationByAppId(appId);
-        return ApplicationMapper.toResponseDto(app);
+        return ApplicationMapper.toResponseDto(getApplicationSnapshotByAppId(appId));
     }
 
     @Transactional(readOnly = true)
@@ -91,7 +119,11 @@ public class ApplicationService {
                 }
         );
 
-        return ApplicationMapper.toResponseDto(applicationRepository.save(app));
+        Application saved = applicationRepository.save(app);
+        applicationLookupService.invalidate(appId);
+        applicationLookupService.invalidate(saved.getAppId());
+
+        return ApplicationMapper.toResponseDto(saved);
     }
 
     /**
@@ -103,28 +135,24 @@ public class ApplicationService {
     public ApplicationResponseDto deleteApplication(String appId){
         Application app = applicationRepository.findByAppId(appId).orElseThrow(() -> new ApplicationNotFoundException("Invalid app id"));
         applicationRepository.deleteByAppId(appId);
+        applicationLookupService.invalidate(appId);
         return ApplicationMapper.toResponseDto(app);
     }
 
     /**
-     * Returns jwt secret used to sign auth tokens
+     * Returns the key relying services use to verify the app's auth tokens
      * @param appId App Id
-     * @return String - 312 character jwt secret
+     * @return String - 312 character jwt secret for HS256 apps, Base64 public key for asymmetric apps
      */
-    @Transactional(readOnly = true)
-    public String getApplicationJwtSecret(String appId){
-        return jwtSecretService.getJwtSecret(appId).toString();
-    }
-
     @Transactional(readOnly = true)
     public String getApplicationJwtSecretString(String appId){
         return jwtSecretService.getJwtSecretString(appId);
     }
 
     /**
-     * Registers new appId
+     * Registers new appId, the app secret is generated here and returned only in this response
      * @param dto ApplicationRequestDto
-     * @return ApplicationResponseDto
+     * @return ApplicationResponseDto including the plain app secret
      * @throws ApplicationAlreadyExistsException if app name is already used by someone
      */
     public ApplicationResponseDto registerNewApp(ApplicationRequestDto dto){
@@ -138,24 +166,68 @@ public class ApplicationService {
 
         Application app = ApplicationMapper.toEntity(dto);
 
-        //Generate unique and cryptographically secured app id
+        //Generate unique, time ordered app id
         String appId = appIdGenerator.generate();
 
         app.setAppId(appId);
 
-        //encode app secret before storing it
-        app.setAppSecret(securityManager.encode(app.getAppSecret()));
+        //secrets are always generated, the keyed hash is only safe for high-entropy secrets
+        String appSecret = appIdGenerator.generateSLCode(APP_SECRET_LENGTH);
+        app.setAppSecret(appSecretEncoder.encode(appSecret));
+
+        jwtSecretService.createJwtSecret(appId, dto.getTokenSigningAlgorithm());
 
-        jwtSecretService.createJwtSecret(appId);
+        ApplicationResponseDto response = ApplicationMapper.toResponseDto(applicationRepository.save(app));
+        response.setAppSecret(appSecret);
 
-        return ApplicationMapper.toResponseDto(applicationRepository.save(app));
+        return response;
     }
 
-    @Transactional(readOnly = true)
-    public boolean verifyApplication(String appId, String appSecret){
+    /**
+     * Replaces the app secret with a newly generated one. The old secret stops working at once on this node,
+     * other nodes verify against their cached snapshot and keep accepting it for up to
+     * <code>app.application-cache.ttl-seconds</code> (300 seconds by default); lower that ttl if a leaked
+     * secret must be cut off faster.
+     * @param appId applications unique app id
+     * @return ApplicationResponseDto including the new plain app secret
+     * @throws ApplicationNotFoundException if app id is invalid
+     */
+    @Transactional
+    public ApplicationResponseDto rotateAppSecret(String appId){
         Application app = getApplicationByAppId(appId);
-        String hashedSecret = app.getAppSecret();
 
-        return securityManager.isValid(appSecret, hashedSecret);
+        String appSecret = appIdGenerator.generateSLCode(APP_SECRET_LENGTH);
+        app.setAppSecret(appSecretEncoder.encode(appSecret));
+
+        ApplicationResponseDto response = ApplicationMapper.toResponseDto(applicationRepository.save(app));
+        applicationLookupService.invalidate(appId);
+        response.setAppSecret(appSecret);
+
+        return response;
+    }
+
+    /**
+     * Verifies app credentials against the cached application, nothing is written unless a stored hash is outdated.
+     * Secrets chosen by organizations before secrets were generated server-side keep their memory-hard hash,
+     * they are only re-hashed when its parameters are out of date and never moved to the keyed hash.
+     * @param appId applications unique app id
+     * @param appSecret plain app secret
+     * @return <code>true</code> if the secret matches
+     */
+    public boolean verifyApplication(String appId, String appSecret){
+        String hashedSecret = getApplicationSnapshotByAppId(appId).appSecret();
+
+        if(appSecretEncoder.supports(hashedSecret)){
+            return appSecretEncoder.isValid(appSecret, hashedSecret);
+        }
+
+        boolean valid = securityManager.isValid(appSecret, hashedSecret);
+
+        if(valid && securityManager.needsRehash(hashedSecret)){
+            applicationRepository.replaceAppSecret(appId, hashedSecret, securityManager.encode(appSecret));
+            applicationLookupService.invalidate(appId);
+        }
+
+        return valid;
     }
 }
@@ -3,6 +3,7 @@ package org.cross.cauth.Application.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.cross.cauth.ApiResponse;
+import org.cross.cauth.CursorPage;
 import org.cross.cauth.Application.Service.ApplicationService;
 import org.cross.cauth.Application.dto.ApplicationRequestDto;
 import org.cross.cauth.Application.dto.ApplicationResponseDto;
@@ -21,9 +22,11 @@ public class ApplicationController {
     private final ApplicationService applicationService;
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<ApplicationResponseDto>>> getAllApplications() {
-        List<ApplicationResponseDto> applications = applicationService.getAllApplications();
-        ApiResponse<List<ApplicationResponseDto>> response = ApiResponse.<List<ApplicationResponseDto>>builder()
+    public ResponseEntity<ApiResponse<CursorPage<ApplicationResponseDto>>> getAllApplications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        CursorPage<ApplicationResponseDto> applications = applicationService.getAllApplications(cursor, size);
+        ApiResponse<CursorPage<ApplicationResponseDto>> response = ApiResponse.<CursorPage<ApplicationResponseDto>>builder()
                 .success(true)
                 .message("Applications retrieved successfully")
                 .timestamp(LocalDateTime.now())
@@ -82,6 +85,18 @@ public class ApplicationController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/{appId}/secret")
+    public ResponseEntity<ApiResponse<ApplicationResponseDto>> rotateAppSecret(@PathVariable String appId) {
+        ApplicationResponseDto application = applicationService.rotateAppSecret(appId);
+        ApiResponse<ApplicationResponseDto> response = ApiResponse.<ApplicationResponseDto>builder()
+                .success(true)
+                .message("App secret rotated successfully")
+                .timestamp(LocalDateTime.now())
+                .data(application)
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
     @PatchMapping("/{appId}")
     public ResponseEntity<ApiResponse<ApplicationResponseDto>> updateApplication(
             @PathVariable String appId,
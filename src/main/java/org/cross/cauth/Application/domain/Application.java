@@ -2,6 +2,8 @@ package org.cross.cauth.Application.domain;
 
 
 import jakarta.persistence.*;
+import org.cross.cauth.utils.UuidV7Generator;
+import org.hibernate.annotations.UuidGenerator;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -13,7 +15,8 @@ import java.util.UUID;
 @Table(name = "applications")
 public class Application {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     @Getter
     private UUID id;
 
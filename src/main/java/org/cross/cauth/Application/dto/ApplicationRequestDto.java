@@ -3,6 +3,7 @@ package org.cross.cauth.Application.dto;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
+import org.cross.cauth.Jwt.TokenSigningAlgorithm;
 
 import java.util.List;
 
@@ -19,8 +20,10 @@ public class ApplicationRequestDto {
     @Email(message = "enter valid email")
     private String ownerEmail;
 
-    @NotBlank(message = "app secret is required")
-    private String appSecret;
-
     private List<String> allowedCallbackUrls;
+
+    /**
+     * Algorithm for signing the app's client tokens, defaults to HS256
+     */
+    private TokenSigningAlgorithm tokenSigningAlgorithm;
 }
@@ -1,5 +1,6 @@
 package org.cross.cauth.Application.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,4 +20,10 @@ public class ApplicationResponseDto {
     private String ownerEmail;
     private LocalDateTime dateOfJoining;
     private List<String> allowedCallbackUrls;
+
+    /**
+     * Plain app secret, only returned when it is generated, it cannot be read back later
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String appSecret;
 }
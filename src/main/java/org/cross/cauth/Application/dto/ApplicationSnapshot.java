@@ -0,0 +1,40 @@
+package org.cross.cauth.Application.dto;
+
+import org.cross.cauth.Application.domain.Application;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable copy of an application row, safe to share between requests from a cache
+ * @param id row id
+ * @param appId applications unique app id
+ * @param appName app name
+ * @param ownerEmail email of the owning organization
+ * @param appSecret hashed app secret
+ * @param allowedCallbackUrls allowed callback urls
+ * @param dateOfJoining registration time
+ */
+public record ApplicationSnapshot(
+        UUID id,
+        String appId,
+        String appName,
+        String ownerEmail,
+        String appSecret,
+        List<String> allowedCallbackUrls,
+        LocalDateTime dateOfJoining
+) {
+
+    public static ApplicationSnapshot of(Application application){
+        return new ApplicationSnapshot(
+                application.getId(),
+                application.getAppId(),
+                application.getAppName(),
+                application.getOwnerEmail(),
+                application.getAppSecret(),
+                application.getAllowedCallbackUrls() == null ? null : List.copyOf(application.getAllowedCallbackUrls()),
+                application.getDateOfJoining()
+        );
+    }
+}
@@ -3,6 +3,7 @@ package org.cross.cauth.Application.mapper;
 import org.cross.cauth.Application.domain.Application;
 import org.cross.cauth.Application.dto.ApplicationRequestDto;
 import org.cross.cauth.Application.dto.ApplicationResponseDto;
+import org.cross.cauth.Application.dto.ApplicationSnapshot;
 
 public class ApplicationMapper {
 
@@ -16,7 +17,6 @@ public class ApplicationMapper {
 
         Application application = new Application();
         application.setAppName(requestDto.getAppName());
-        application.setAppSecret(requestDto.getAppSecret());
         application.setAllowedCallbackUrls(requestDto.getAllowedCallbackUrls());
         application.setOwnerEmail(requestDto.getOwnerEmail());
 
@@ -40,6 +40,23 @@ public class ApplicationMapper {
                 .build();
     }
 
+    /**
+     * Convert cached ApplicationSnapshot to ApplicationResponseDto
+     */
+    public static ApplicationResponseDto toResponseDto(ApplicationSnapshot application) {
+        if (application == null) {
+            return null;
+        }
+
+        return ApplicationResponseDto.builder()
+                .appName(application.appName())
+                .appId(application.appId())
+                .dateOfJoining(application.dateOfJoining())
+                .ownerEmail(application.ownerEmail())
+                .allowedCallbackUrls(application.allowedCallbackUrls())
+                .build();
+    }
+
     /**
      * Update existing Application entity with data from ApplicationRequestDto
      */
@@ -51,9 +68,6 @@ public class ApplicationMapper {
         if (requestDto.getAppName() != null) {
             application.setAppName(requestDto.getAppName());
         }
-        if (requestDto.getAppSecret() != null) {
-            application.setAppSecret(requestDto.getAppSecret());
-        }
         if (requestDto.getAllowedCallbackUrls() != null) {
             application.setAllowedCallbackUrls(requestDto.getAllowedCallbackUrls());
         }
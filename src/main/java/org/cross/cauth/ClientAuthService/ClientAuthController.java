@@ -1,5 +1,6 @@
 package org.cross.cauth.ClientAuthService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.cross.cauth.ApiResponse;
@@ -17,12 +18,13 @@ public class ClientAuthController {
     private final ClientAuthService clientAuthTokenService;
 
     @PostMapping("/signInWithEmailAndPassword")
-    public ResponseEntity<ApiResponse<String>> loginEndUser(
-            @RequestBody UserLoginRequestDto dto
+    public ResponseEntity<ApiResponse<ClientTokenResponseDto>> loginEndUser(
+            @RequestBody UserLoginRequestDto dto,
+            HttpServletRequest request
     ){
-        String authToken = clientAuthTokenService.login(dto);
+        ClientTokenResponseDto authToken = clientAuthTokenService.login(dto, request.getRemoteAddr());
 
-        ApiResponse<String> apiResponse = ApiResponse.<String>builder()
+        ApiResponse<ClientTokenResponseDto> apiResponse = ApiResponse.<ClientTokenResponseDto>builder()
                 .success(true)
                 .message("auth token generated successfully")
                 .data(authToken)
@@ -32,12 +34,12 @@ public class ClientAuthController {
     }
 
     @PostMapping("/signUpWithEmail")
-    public ResponseEntity<ApiResponse<String>> registerEndUser(
+    public ResponseEntity<ApiResponse<ClientTokenResponseDto>> registerEndUser(
             @RequestBody CreateUserRequestDto dto
     ){
-        String authCode = clientAuthTokenService.register(dto);
+        ClientTokenResponseDto authCode = clientAuthTokenService.register(dto);
 
-        ApiResponse<String> apiResponse = ApiResponse.<String>builder()
+        ApiResponse<ClientTokenResponseDto> apiResponse = ApiResponse.<ClientTokenResponseDto>builder()
                 .success(true)
                 .message("auth code generated successfully")
                 .data(authCode)
@@ -93,12 +95,12 @@ public class ClientAuthController {
 
 
     @PostMapping(value = "/token")
-    public ResponseEntity<ApiResponse<String>> getClientAuthToken(
+    public ResponseEntity<ApiResponse<ClientTokenResponseDto>> getClientAuthToken(
             @Valid @RequestBody TokenRequestDto dto
     ){
-        String authToken = clientAuthTokenService.issueAuthToken(dto);
+        ClientTokenResponseDto authToken = clientAuthTokenService.issueAuthToken(dto);
 
-        ApiResponse<String> apiResponse = ApiResponse.<String>builder()
+        ApiResponse<ClientTokenResponseDto> apiResponse = ApiResponse.<ClientTokenResponseDto>builder()
                 .success(true)
                 .message("client auth token generated")
                 .data(authToken)
@@ -107,4 +109,52 @@ public class ClientAuthController {
 
         return ResponseEntity.ok(apiResponse);
     }
+
+    @PostMapping("/refreshToken")
+    public ResponseEntity<ApiResponse<ClientTokenResponseDto>> refreshClientAuthToken(
+            @Valid @RequestBody RefreshTokenRequestDto dto
+    ){
+        ClientTokenResponseDto authToken = clientAuthTokenService.refresh(dto);
+
+        ApiResponse<ClientTokenResponseDto> apiResponse = ApiResponse.<ClientTokenResponseDto>builder()
+                .success(true)
+                .message("client auth token refreshed")
+                .data(authToken)
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.ok(apiResponse);
+    }
+
+    @PostMapping("/introspect")
+    public ResponseEntity<ApiResponse<TokenIntrospectionDto>> introspectClientAuthToken(
+            @Valid @RequestBody IntrospectTokenRequestDto dto
+    ){
+        TokenIntrospectionDto introspection = clientAuthTokenService.introspect(dto);
+
+        ApiResponse<TokenIntrospectionDto> apiResponse = ApiResponse.<TokenIntrospectionDto>builder()
+                .success(true)
+                .message("client auth token introspected")
+                .data(introspection)
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.ok(apiResponse);
+    }
+
+    @PostMapping("/signOut")
+    public ResponseEntity<ApiResponse<String>> signOutEndUser(
+            @Valid @RequestBody RefreshTokenRequestDto dto
+    ){
+        clientAuthTokenService.signOut(dto);
+
+        ApiResponse<String> apiResponse = ApiResponse.<String>builder()
+                .success(true)
+                .message("session revoked")
+                .data("Signed Out")
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        return ResponseEntity.ok(apiResponse);
+    }
 }
@@ -4,19 +4,20 @@ import lombok.RequiredArgsConstructor;
 import org.cross.cauth.Application.Service.ApplicationService;
 import org.cross.cauth.EmailService.MailService;
 import org.cross.cauth.Exception.InvalidCredentialsException;
+import org.cross.cauth.Jwt.AppSigningKey;
 import org.cross.cauth.Jwt.JwtSecretService;
 import org.cross.cauth.Jwt.JwtService;
 import org.cross.cauth.User.Service.UserService;
 import org.cross.cauth.User.dto.CreateUserRequestDto;
 import org.cross.cauth.User.dto.UserLoginRequestDto;
 import org.cross.cauth.User.dto.UserResponseDto;
+import org.cross.cauth.utils.LoginThrottleService;
+import org.cross.cauth.utils.RefreshTokenService;
 import org.cross.cauth.utils.SecretCodeService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
-
 @Service
 @RequiredArgsConstructor
 public class ClientAuthService {
@@ -25,7 +26,9 @@ public class ClientAuthService {
     private final JwtService jwtService;
     private final JwtSecretService jwtSecretService;
     private final SecretCodeService secretCodeService;
+    private final RefreshTokenService refreshTokenService;
     private final MailService mailService;
+    private final LoginThrottleService loginThrottleService;
 
     Logger logger = LoggerFactory.getLogger(ClientAuthService.class);
 
@@ -33,28 +36,74 @@ public class ClientAuthService {
         return userService.isValidUser(email, appId, password);
     }
 
-    public String login(UserLoginRequestDto dto){
+    public ClientTokenResponseDto login(UserLoginRequestDto dto, String clientIp){
         String email = dto.getEmail();
         String password = dto.getPassword();
         String appId = dto.getAppId();
 
-        if(validateUser(email, appId, password)){
-            SecretKey signInKey = jwtSecretService.getJwtSecret(appId);
+        // throttle before the password hash is touched, rejected attempts cost no hashing
+        loginThrottleService.checkUserLogin(appId, email, clientIp);
 
-            return jwtService.generateTokenForClient(email, appId, signInKey);
+        if(validateUser(email, appId, password)){
+            loginThrottleService.recordSuccessfulUserLogin(appId, email);
+            return issueTokens(email, appId);
         }
 
         throw new InvalidCredentialsException("Bad Credentials");
     }
 
-    public String register(CreateUserRequestDto dto){
+    public ClientTokenResponseDto register(CreateUserRequestDto dto){
         String email = dto.getEmail();
         String appId = dto.getAppId();
 
         userService.createUser(dto);
-        SecretKey signInKey = jwtSecretService.getJwtSecret(appId);
 
-        return jwtService.generateTokenForClient(email, appId, signInKey);
+        return issueTokens(email, appId);
+    }
+
+    /**
+     * Renews a session without a password check, the presented refresh token is consumed
+     * @param dto refresh token request
+     * @return new access token and refresh token pair
+     */
+    public ClientTokenResponseDto refresh(RefreshTokenRequestDto dto){
+        RefreshTokenService.RefreshedSession session = refreshTokenService.rotate(dto.getRefreshToken());
+
+        String accessToken = jwtService.generateTokenForClient(
+                session.email(),
+                session.appId(),
+                jwtSecretService.getSigningKey(session.appId())
+        );
+
+        return new ClientTokenResponseDto(accessToken, session.refreshToken(), "Bearer", jwtService.getClientTokenExpirationSeconds());
+    }
+
+    /**
+     * Checks a client access token for the relying service of its app. Keys are picked by the
+     * token's <code>kid</code> from the in-memory key ring, so rotated keys keep verifying during their grace period.
+     * @param dto app credentials and the token to check
+     * @return claims of an active token, or an inactive result if the token is invalid, expired or issued for another app
+     * @throws InvalidCredentialsException if the app credentials are wrong
+     */
+    public TokenIntrospectionDto introspect(IntrospectTokenRequestDto dto){
+        if(!applicationService.verifyApplication(dto.getAppId(), dto.getAppSecret())){
+            throw new InvalidCredentialsException("Bad Credentials");
+        }
+
+        return jwtService.verifyClientToken(dto.getToken(), dto.getAppId())
+                .filter(claims -> dto.getAppId().equals(claims.get("app", String.class)))
+                .map(claims -> new TokenIntrospectionDto(
+                        true,
+                        claims.getSubject(),
+                        claims.get("app", String.class),
+                        claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                        claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+                ))
+                .orElseGet(TokenIntrospectionDto::inactive);
+    }
+
+    public void signOut(RefreshTokenRequestDto dto){
+        refreshTokenService.revoke(dto.getRefreshToken());
     }
 
     public String getUserAuthId(UserIdentificationDto dto){
@@ -87,7 +136,7 @@ public class ClientAuthService {
         return "Password Changed";
     }
 
-    public String issueAuthToken(TokenRequestDto dto){
+    public ClientTokenResponseDto issueAuthToken(TokenRequestDto dto){
         logger.info("issueAuthToken : initializing auth token generation");
 
         if(!applicationService.verifyApplication(dto.getAppId(), dto.getAppSecret())){
@@ -106,9 +155,16 @@ public class ClientAuthService {
 
         logger.info("issueAuthToken : email {} appId {}", email, appId);
 
-        SecretKey signInKey = jwtSecretService.getJwtSecret(appId);
+        return issueTokens(email, appId);
+    }
+
+    private ClientTokenResponseDto issueTokens(String email, String appId){
+        AppSigningKey signInKey = jwtSecretService.getSigningKey(appId);
+
+        String accessToken = jwtService.generateTokenForClient(email, appId, signInKey);
+        String refreshToken = refreshTokenService.issue(appId, email);
 
-        return jwtService.generateTokenForClient(email, appId, signInKey);
+        return new ClientTokenResponseDto(accessToken, refreshToken, "Bearer", jwtService.getClientTokenExpirationSeconds());
     }
 
 
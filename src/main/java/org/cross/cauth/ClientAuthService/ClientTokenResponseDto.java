@@ -0,0 +1,12 @@
+package org.cross.cauth.ClientAuthService;
+
+/**
+ * Short-lived access token plus the refresh token used to renew it
+ * @param expiresIn access token lifetime in seconds
+ */
+public record ClientTokenResponseDto(
+        String accessToken,
+        String refreshToken,
+        String tokenType,
+        long expiresIn
+) {}
@@ -0,0 +1,20 @@
+package org.cross.cauth.ClientAuthService;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class IntrospectTokenRequestDto {
+    @NotBlank(message = "appId is required")
+    private String appId;
+
+    @NotBlank(message = "app secret is required")
+    private String appSecret;
+
+    @NotBlank(message = "token is required")
+    private String token;
+}
@@ -0,0 +1,10 @@
+package org.cross.cauth.ClientAuthService;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+
+@Getter
+public class RefreshTokenRequestDto {
+    @NotBlank(message = "refresh token is required")
+    private String refreshToken;
+}
@@ -0,0 +1,27 @@
+package org.cross.cauth.ClientAuthService;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * Introspection result of a client access token, every field except <code>active</code> is omitted for inactive tokens
+ * @param active whether the token is signed by a current or in-grace key of the app and not expired
+ * @param subject user's email
+ * @param appId app the token was issued for
+ * @param issuedAt issue time
+ * @param expiresAt expiry time
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TokenIntrospectionDto(
+        boolean active,
+        String subject,
+        String appId,
+        Instant issuedAt,
+        Instant expiresAt
+) {
+
+    public static TokenIntrospectionDto inactive(){
+        return new TokenIntrospectionDto(false, null, null, null, null);
+    }
+}
@@ -0,0 +1,34 @@
+package org.cross.cauth;
+
+import org.cross.cauth.utils.PageCursor;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing
+ * @param items rows of this page
+ * @param nextCursor opaque cursor for the next page, <code>null</code> on the last page
+ * @param hasMore whether another page exists
+ */
+public record CursorPage<T>(List<T> items, String nextCursor, boolean hasMore) {
+
+    /**
+     * Builds a page from rows fetched with a limit of <code>size + 1</code>,
+     * the extra row only tells whether another page exists
+     * @param rows rows ordered by id
+     * @param size requested page size
+     * @param id id accessor the listing is ordered by
+     * @param mapper row to response mapper
+     * @return CursorPage
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size, Function<E, UUID> id, Function<E, T> mapper){
+        boolean hasMore = rows.size() > size;
+        List<E> page = hasMore ? rows.subList(0, size) : rows;
+
+        String nextCursor = hasMore ? PageCursor.encode(id.apply(page.get(page.size() - 1))) : null;
+
+        return new CursorPage<>(page.stream().map(mapper).toList(), nextCursor, hasMore);
+    }
+}
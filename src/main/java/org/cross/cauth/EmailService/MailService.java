@@ -6,6 +6,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -18,6 +19,10 @@ public class MailService {
     @Value("${spring.mail.username}")
     private String SENDER;
 
+    /**
+     * Sends the mail in the background, callers do not wait on the SMTP round trips
+     */
+    @Async
     public void sendMail(String receiver, String subject, String body){
         logger.info("sendMail : entered mail service");
 
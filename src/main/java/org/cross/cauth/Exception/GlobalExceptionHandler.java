@@ -1,5 +1,6 @@
 package org.cross.cauth.Exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -120,6 +121,60 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<ErrorResponse>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(InvalidPageCursorException.class)
+    public ResponseEntity<ErrorResponse> invalidPageCursorExceptionHandler(
+            InvalidPageCursorException ex,
+            WebRequest request
+    ){
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .path(request.getDescription(false).replace("uri=", ""))
+                .status(400)
+                .timestamp(LocalDateTime.now())
+                .error("Invalid Page Cursor")
+                .message(ex.getMessage())
+                .build();
+
+        return new ResponseEntity<ErrorResponse>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<ErrorResponse> hashingCapacityExceededExceptionHandler(
+            HashingCapacityExceededException ex,
+            WebRequest request
+    ){
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .path(request.getDescription(false).replace("uri=", ""))
+                .status(503)
+                .timestamp(LocalDateTime.now())
+                .error("Service Unavailable")
+                .message(ex.getMessage())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(TooManyAttemptsException.class)
+    public ResponseEntity<ErrorResponse> tooManyAttemptsExceptionHandler(
+            TooManyAttemptsException ex,
+            WebRequest request
+    ){
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .path(request.getDescription(false).replace("uri=", ""))
+                .status(429)
+                .timestamp(LocalDateTime.now())
+                .error("Too Many Requests")
+                .message(ex.getMessage())
+                .build();
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> exceptionHandler(
@@ -0,0 +1,13 @@
+package org.cross.cauth.Exception;
+
+import lombok.Getter;
+
+@Getter
+public class HashingCapacityExceededException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public HashingCapacityExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,7 @@
+package org.cross.cauth.Exception;
+
+public class InvalidPageCursorException extends RuntimeException {
+    public InvalidPageCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,28 @@
+package org.cross.cauth.Jwt;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * All keys of one application that may still sign or verify tokens, newest first.
+ * @param keys current key followed by retired keys still inside their grace period
+ */
+record AppKeyRing(List<AppSigningKey> keys) {
+
+    Optional<AppSigningKey> current(){
+        return keys.stream()
+                .filter(key -> key.retiredAt() == null)
+                .findFirst();
+    }
+
+    Optional<AppSigningKey> find(String keyId, Duration gracePeriod){
+        Instant now = Instant.now();
+
+        return keys.stream()
+                .filter(key -> key.keyId().equals(keyId))
+                .filter(key -> key.isUsableAt(now, gracePeriod))
+                .findFirst();
+    }
+}
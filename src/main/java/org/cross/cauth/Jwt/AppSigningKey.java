@@ -0,0 +1,35 @@
+package org.cross.cauth.Jwt;
+
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Ready-to-use key material for signing an application's client tokens.
+ * @param appId owning application
+ * @param algorithm signing algorithm
+ * @param keyId value for the <code>kid</code> header
+ * @param signingKey HMAC secret or private key
+ * @param publicKey public key for asymmetric algorithms, otherwise <code>null</code>
+ * @param retiredAt when a newer key replaced this one, <code>null</code> for the current key
+ */
+public record AppSigningKey(
+        String appId,
+        TokenSigningAlgorithm algorithm,
+        String keyId,
+        Key signingKey,
+        PublicKey publicKey,
+        Instant retiredAt
+) {
+    /**
+     * Key used to check signatures, the secret itself for HMAC keys
+     */
+    public Key verificationKey(){
+        return publicKey != null ? publicKey : signingKey;
+    }
+
+    public boolean isUsableAt(Instant now, Duration gracePeriod){
+        return retiredAt == null || retiredAt.plus(gracePeriod).isAfter(now);
+    }
+}
@@ -0,0 +1,34 @@
+package org.cross.cauth.Jwt;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * Publishes the public keys of applications using asymmetric token signing,
+ * so relying services can verify client tokens locally.
+ * Served as a plain JWKS document (RFC 7517) rather than an {@code ApiResponse}.
+ */
+@RestController
+@RequestMapping("/api/v1/public/.well-known")
+@RequiredArgsConstructor
+public class JwksController {
+    private final JwtSecretService jwtSecretService;
+
+    @Value("${app.jwks.ttl-seconds:300}")
+    private long jwksTtlSeconds;
+
+    @GetMapping(value = "/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> getJwks(){
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(jwksTtlSeconds)).cachePublic())
+                .body(jwtSecretService.getPublicJwks());
+    }
+}
@@ -5,6 +5,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.Instant;
+
 @Entity
 @Table(name = "jwt-secret-keys")
 @Getter
@@ -17,11 +19,58 @@ public class JwtSecretKey {
 
     private String appId;
 
+    /**
+     * Value of the <code>kid</code> header, formatted as <code>appId.suffix</code>
+     */
+    @Column(unique = true, nullable = false)
+    private String keyId;
+
+    private Instant createdAt;
+
+    /**
+     * Set when a newer key replaces this one, the key keeps verifying tokens for the grace period
+     */
+    private Instant retiredAt;
+
+    /**
+     * Base64 HMAC secret for HS256, Base64 PKCS#8 private key for asymmetric algorithms
+     */
     @Column(length = 325)
     private String secret;
 
+    /**
+     * Null for rows created before asymmetric signing existed, which are HS256
+     */
+    @Enumerated(EnumType.STRING)
+    private TokenSigningAlgorithm algorithm;
+
+    /**
+     * Base64 X.509 public key, only set for asymmetric algorithms
+     */
+    @Column(length = 325)
+    private String publicKey;
+
     public JwtSecretKey(String appId, String secret) {
         this.secret = secret;
         this.appId = appId;
+        this.algorithm = TokenSigningAlgorithm.HS256;
+    }
+
+    public JwtSecretKey(String appId, TokenSigningAlgorithm algorithm, String secret, String publicKey) {
+        this.appId = appId;
+        this.algorithm = algorithm;
+        this.secret = secret;
+        this.publicKey = publicKey;
+    }
+
+    @PrePersist
+    public void setTimestamp(){
+        if(this.createdAt == null){
+            this.createdAt = Instant.now();
+        }
+    }
+
+    public TokenSigningAlgorithm getAlgorithm() {
+        return algorithm != null ? algorithm : TokenSigningAlgorithm.HS256;
     }
 }
@@ -2,10 +2,13 @@ package org.cross.cauth.Jwt;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
 public interface JwtSecretRepository extends JpaRepository<JwtSecretKey, Long> {
-    Optional<JwtSecretKey> findByAppId(String id);
+    List<JwtSecretKey> findByAppIdOrderByIdDesc(String id);
+
+    List<JwtSecretKey> findByAlgorithmIn(Collection<TokenSigningAlgorithm> algorithms);
 
     boolean deleteByAppId(String id);
 }
@@ -1,54 +1,319 @@
 package org.cross.cauth.Jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Jwks;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.cross.cauth.Exception.InvalidCredentialsException;
 import org.cross.cauth.utils.UniqueIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class JwtSecretService {
+    private static final String JWKS_CACHE_KEY = "jwks";
+
     private final JwtSecretRepository jwtSecretRepository;
     private final UniqueIdGenerator uniqueIdGenerator;
 
-     public SecretKey createJwtSecret(String appId){
-         String secret = uniqueIdGenerator.generateSLCode(312);
+    /**
+     * How long a rotated-out key keeps verifying tokens it signed. It must be at least the
+     * client token lifetime, otherwise tokens signed just before a rotation fail before they expire.
+     */
+    private final Duration gracePeriod;
+
+    /**
+     * Decoded key rings by app id, so warm token issuance and verification never touch the database.
+     * Entries are dropped on rotation/deletion; the TTL bounds staleness across nodes.
+     */
+    private final Cache<String, AppKeyRing> keyRingCache;
+
+    /**
+     * Serialized JWKS document, rebuilt at most once per TTL or after a key change
+     */
+    private final Cache<String, String> jwksCache;
+
+    public JwtSecretService(
+            JwtSecretRepository jwtSecretRepository,
+            UniqueIdGenerator uniqueIdGenerator,
+            MeterRegistry meterRegistry,
+            @Value("${app.jwt-key-cache.max-size:10000}") long maxSize,
+            @Value("${app.jwt-key-cache.ttl-minutes:60}") long ttlMinutes,
+            @Value("${app.jwks.ttl-seconds:300}") long jwksTtlSeconds,
+            @Value("${app.jwt-key-rotation.grace-period-minutes:60}") long gracePeriodMinutes,
+            @Value("${app.client-token.access-ttl-seconds:900}") long clientTokenTtlSeconds
+    ) {
+        this.jwtSecretRepository = jwtSecretRepository;
+        this.uniqueIdGenerator = uniqueIdGenerator;
+        this.gracePeriod = Duration.ofMinutes(gracePeriodMinutes);
+
+        if(gracePeriod.compareTo(Duration.ofSeconds(clientTokenTtlSeconds)) < 0){
+            throw new IllegalStateException("app.jwt-key-rotation.grace-period-minutes (" + gracePeriodMinutes
+                    + ") must cover app.client-token.access-ttl-seconds (" + clientTokenTtlSeconds + ")");
+        }
+
+        this.keyRingCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        this.jwksCache = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(Duration.ofSeconds(jwksTtlSeconds))
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, keyRingCache, "jwtSigningKeys");
+    }
+
+    public AppSigningKey createJwtSecret(String appId){
+        return createJwtSecret(appId, TokenSigningAlgorithm.HS256);
+    }
+
+    /**
+     * Creates and stores signing key material for a new application
+     * @param appId App Id
+     * @param algorithm algorithm used to sign the app's client tokens, <code>null</code> means HS256
+     * @return AppSigningKey ready for signing
+     */
+    public AppSigningKey createJwtSecret(String appId, TokenSigningAlgorithm algorithm){
+        JwtSecretKey jwtSecretKey = newKeyMaterial(appId, algorithm != null ? algorithm : TokenSigningAlgorithm.HS256);
+
+        jwtSecretRepository.save(jwtSecretKey);
+        invalidate(appId);
+
+        return toSigningKey(jwtSecretKey);
+    }
+
+    /**
+     * Newest active key of the app, used to sign new tokens
+     * @param appId App Id
+     * @return AppSigningKey
+     * @throws InvalidCredentialsException if the app has no active key
+     */
+    public AppSigningKey getSigningKey(String appId){
+        Optional<AppSigningKey> current = findKeyRing(appId).flatMap(AppKeyRing::current);
 
-         jwtSecretRepository.save(new JwtSecretKey(appId, secret));
+        if(current.isEmpty()){
+            // the ring may have been cached before the key was created on another node
+            keyRingCache.invalidate(appId);
+            current = findKeyRing(appId).flatMap(AppKeyRing::current);
+        }
 
-         return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
-     }
+        return current.orElseThrow(() -> new InvalidCredentialsException("Invalid app id"));
+    }
 
-     public SecretKey getJwtSecret(String appId){
-         JwtSecretKey jwtSecretKey = jwtSecretRepository.findByAppId(appId)
-                 .orElseThrow(() -> new InvalidCredentialsException("Invalid app id"));
+    /**
+     * Finds the key a client token was signed with from its <code>kid</code> header.
+     * The kid is read before the signature is checked, so only kids of the authenticated
+     * calling app are looked up; any other kid is rejected without touching the database or the cache.
+     * @param keyId kid header value
+     * @param appId app id of the authenticated caller
+     * @return verification key if it belongs to the caller and is current or still within its grace period
+     */
+    public Optional<Key> findVerificationKey(String keyId, String appId){
+        if(keyId == null || appId == null || keyId.lastIndexOf('.') <= 0){
+            return Optional.empty();
+        }
 
-         return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecretKey.getSecret()));
-     }
+        if(!appId.equals(keyId.substring(0, keyId.lastIndexOf('.')))){
+            return Optional.empty();
+        }
 
+        return findKeyRing(appId)
+                .flatMap(keyRing -> keyRing.find(keyId, gracePeriod))
+                .map(AppSigningKey::verificationKey);
+    }
+
+    /**
+     * Returns the key relying services need to verify the app's tokens
+     * @param appId App Id
+     * @return Base64 HMAC secret for HS256 apps, Base64 X.509 public key for asymmetric apps
+     */
     public String getJwtSecretString(String appId){
-        JwtSecretKey jwtSecretKey = jwtSecretRepository.findByAppId(appId)
+        JwtSecretKey jwtSecretKey = findCurrentKey(appId);
+
+        return jwtSecretKey.getAlgorithm().isAsymmetric()
+                ? jwtSecretKey.getPublicKey()
+                : jwtSecretKey.getSecret();
+    }
+
+    /**
+     * Rotates the app's signing key. The previous key is retired but keeps verifying
+     * tokens for the configured grace period, keys past their grace period are removed.
+     * @param appId App Id
+     * @return the new current AppSigningKey
+     */
+    @Transactional
+    public AppSigningKey updateJwtSecret(String appId){
+        JwtSecretKey current = findCurrentKey(appId);
+        Instant now = Instant.now();
+
+        for(JwtSecretKey key : jwtSecretRepository.findByAppIdOrderByIdDesc(appId)){
+            if(key.getRetiredAt() == null){
+                key.setRetiredAt(now);
+                jwtSecretRepository.save(key);
+            } else if(!key.getRetiredAt().plus(gracePeriod).isAfter(now)){
+                jwtSecretRepository.delete(key);
+            }
+        }
+
+        JwtSecretKey rotated = jwtSecretRepository.save(newKeyMaterial(appId, current.getAlgorithm()));
+        invalidate(appId);
+
+        return toSigningKey(rotated);
+    }
+
+    public boolean deleteJwtSecret(String appId){
+        boolean deleted = jwtSecretRepository.deleteByAppId(appId);
+        invalidate(appId);
+
+        return deleted;
+    }
+
+    /**
+     * Public keys of every application signing with an asymmetric algorithm,
+     * including retired keys still inside their grace period
+     * @return JWKS json document
+     */
+    public String getPublicJwks(){
+        return jwksCache.get(JWKS_CACHE_KEY, key -> buildJwks());
+    }
+
+    private String buildJwks(){
+        Instant now = Instant.now();
+
+        String keys = jwtSecretRepository
+                .findByAlgorithmIn(EnumSet.of(TokenSigningAlgorithm.ES256, TokenSigningAlgorithm.EdDSA))
+                .stream()
+                .map(this::toSigningKey)
+                .filter(signingKey -> signingKey.isUsableAt(now, gracePeriod))
+                .map(signingKey -> Jwks.json(
+                        Jwks.builder()
+                                .key(signingKey.publicKey())
+                                .id(signingKey.keyId())
+                                .build()
+                ))
+                .collect(Collectors.joining(","));
+
+        return "{\"keys\":[" + keys + "]}";
+    }
+
+    private void invalidate(String appId){
+        keyRingCache.invalidate(appId);
+        jwksCache.invalidateAll();
+    }
+
+    private JwtSecretKey findCurrentKey(String appId){
+        return jwtSecretRepository.findByAppIdOrderByIdDesc(appId)
+                .stream()
+                .filter(key -> key.getRetiredAt() == null)
+                .findFirst()
                 .orElseThrow(() -> new InvalidCredentialsException("Invalid app id"));
+    }
+
+    private Optional<AppKeyRing> findKeyRing(String appId){
+        return Optional.ofNullable(keyRingCache.get(appId, this::loadKeyRing));
+    }
+
+    /**
+     * @return the app's usable keys, or <code>null</code> if there are none so that unknown
+     * or deleted apps are never cached and cannot evict the rings of live apps
+     */
+    private AppKeyRing loadKeyRing(String appId){
+        Instant now = Instant.now();
 
-        return jwtSecretKey.getSecret();
+        List<AppSigningKey> keys = jwtSecretRepository.findByAppIdOrderByIdDesc(appId)
+                .stream()
+                .map(this::toSigningKey)
+                .filter(key -> key.isUsableAt(now, gracePeriod))
+                .toList();
+
+        return keys.isEmpty() ? null : new AppKeyRing(keys);
     }
 
-     public SecretKey updateJwtSecret(String appId){
-         JwtSecretKey jwtSecretKey = jwtSecretRepository.findByAppId(appId)
-                 .orElseThrow(() -> new InvalidCredentialsException("Invalid app id"));
+    private String newKeyId(String appId){
+        return appId + "." + uniqueIdGenerator.generateSLCode(16);
+    }
 
-         String secret = uniqueIdGenerator.generateSLCode(312);
+    private JwtSecretKey newKeyMaterial(String appId, TokenSigningAlgorithm algorithm){
+        JwtSecretKey jwtSecretKey;
 
-         jwtSecretKey.setSecret(secret);
+        if(!algorithm.isAsymmetric()){
+            jwtSecretKey = new JwtSecretKey(appId, uniqueIdGenerator.generateSLCode(312));
+        } else {
+            KeyPair keyPair = switch (algorithm) {
+                case ES256 -> Jwts.SIG.ES256.keyPair().build();
+                case EdDSA -> Jwks.CRV.Ed25519.keyPair().build();
+                default -> throw new IllegalArgumentException("Unsupported signing algorithm " + algorithm);
+            };
 
-         return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
-     }
+            Base64.Encoder encoder = Base64.getEncoder();
 
-     public boolean deleteJwtSecret(String appId){
-         return jwtSecretRepository.deleteByAppId(appId);
-     }
+            jwtSecretKey = new JwtSecretKey(
+                    appId,
+                    algorithm,
+                    encoder.encodeToString(keyPair.getPrivate().getEncoded()),
+                    encoder.encodeToString(keyPair.getPublic().getEncoded())
+            );
+        }
+
+        jwtSecretKey.setKeyId(newKeyId(appId));
+
+        return jwtSecretKey;
+    }
+
+    private AppSigningKey toSigningKey(JwtSecretKey jwtSecretKey){
+        TokenSigningAlgorithm algorithm = jwtSecretKey.getAlgorithm();
+
+        if(!algorithm.isAsymmetric()){
+            return new AppSigningKey(
+                    jwtSecretKey.getAppId(),
+                    algorithm,
+                    jwtSecretKey.getKeyId(),
+                    Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecretKey.getSecret())),
+                    null,
+                    jwtSecretKey.getRetiredAt()
+            );
+        }
+
+        try {
+            Base64.Decoder decoder = Base64.getDecoder();
+            KeyFactory keyFactory = KeyFactory.getInstance(algorithm.getKeyFactoryAlgorithm());
+
+            PrivateKey privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(decoder.decode(jwtSecretKey.getSecret())));
+            PublicKey publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(decoder.decode(jwtSecretKey.getPublicKey())));
+
+            return new AppSigningKey(
+                    jwtSecretKey.getAppId(),
+                    algorithm,
+                    jwtSecretKey.getKeyId(),
+                    privateKey,
+                    publicKey,
+                    jwtSecretKey.getRetiredAt()
+            );
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Stored signing key for app " + jwtSecretKey.getAppId() + " is unreadable", e);
+        }
+    }
 }
@@ -1,20 +1,32 @@
 package org.cross.cauth.Jwt;
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.security.Key;
 import java.util.Date;
+import java.util.Optional;
 import java.util.function.Function;
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
+    private final JwtSecretService jwtSecretService;
 
     @Value("${app.jwt-secret}")
     private String JWT_SECRET;
@@ -22,8 +34,44 @@ public class JwtService {
     @Value("${app.jwt-expiration}")
     private long JWT_EXP;
 
+    @Value("${app.client-token.access-ttl-seconds:900}")
+    private long CLIENT_TOKEN_EXP_SECONDS;
+
+    @Value("${app.jwt-key-cache.max-size:10000}")
+    private long CLIENT_TOKEN_PARSER_CACHE_SIZE;
+
+    // Built once at startup; SecretKey and JwtParser are immutable and thread-safe
+    private SecretKey signInKey;
+    private JwtParser parser;
+
+    // One client token parser per calling app, its key locator only resolves that app's keys
+    private Cache<String, JwtParser> clientTokenParsers;
+
+    @PostConstruct
+    void init(){
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(JWT_SECRET));
+        this.parser = Jwts.parser()
+                .verifyWith(signInKey)
+                .build();
+        this.clientTokenParsers = Caffeine.newBuilder()
+                .maximumSize(CLIENT_TOKEN_PARSER_CACHE_SIZE)
+                .build();
+    }
+
+    private JwtParser buildClientTokenParser(String appId){
+        return Jwts.parser()
+                .require("app", appId)
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return jwtSecretService.findVerificationKey(header.getKeyId(), appId).orElse(null);
+                    }
+                })
+                .build();
+    }
+
     private SecretKey getSignInKey(){
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(JWT_SECRET));
+        return signInKey;
     }
 
     public String generateToken(String username){
@@ -47,28 +95,69 @@ public class JwtService {
                 .compact();
     }
 
-    public String generateTokenForClient(String email, String appId, SecretKey signInKey){
+    public String generateTokenForClient(String email, String appId, AppSigningKey signingKey){
         return Jwts.builder()
                 .header()
                 .add("X-CROSS-AUTH-VERSION", "v1.0.0")
+                .keyId(signingKey.keyId())
                 .and()
                 .subject(email)
                 .claim("app", appId)
                 .issuer("Cross-Auth-v1")
-                .expiration(new Date(System.currentTimeMillis() + 1000*60*60*10))
+                .expiration(new Date(System.currentTimeMillis() + CLIENT_TOKEN_EXP_SECONDS * 1000))
                 .issuedAt(new Date())
-                .signWith(signInKey)
+                .signWith(signingKey.signingKey())
                 .compact();
     }
 
+    public long getClientTokenExpirationSeconds(){
+        return CLIENT_TOKEN_EXP_SECONDS;
+    }
+
     public Claims extractAllClaims(String token){
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
+        return parser
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
+    /**
+     * Parses and verifies the token exactly once
+     * @param token organization jwt
+     * @return verified token details, or empty if the signature is invalid, the token is malformed or expired
+     */
+    public Optional<VerifiedToken> verify(String token){
+        try {
+            Claims claims = extractAllClaims(token);
+            Date expiration = claims.getExpiration();
+
+            VerifiedToken verifiedToken = new VerifiedToken(
+                    claims.getSubject(),
+                    claims.get("role", String.class),
+                    expiration != null ? expiration.toInstant() : null,
+                    claims.getIssuer()
+            );
+
+            return verifiedToken.isExpired() ? Optional.empty() : Optional.of(verifiedToken);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Verifies a token issued by {@link #generateTokenForClient}, selecting the key by its <code>kid</code> header
+     * @param token client jwt
+     * @param appId authenticated app the token must have been issued for
+     * @return claims, or empty if the key is unknown, past its grace period or of another app,
+     * or the token is invalid or expired
+     */
+    public Optional<Claims> verifyClientToken(String token, String appId){
+        try {
+            return Optional.of(clientTokenParsers.get(appId, this::buildClientTokenParser).parseSignedClaims(token).getPayload());
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver){
         Claims claims = extractAllClaims(token);
 
@@ -88,9 +177,8 @@ public class JwtService {
     }
 
     public boolean isValid(String token, UserDetails userDetails){
-        String userName = userDetails.getUsername();
-        String subject = extractSubject(token);
-
-        return userName.equals(subject) && !isExpired(token);
+        return verify(token)
+                .map(verifiedToken -> userDetails.getUsername().equals(verifiedToken.subject()))
+                .orElse(false);
     }
 }
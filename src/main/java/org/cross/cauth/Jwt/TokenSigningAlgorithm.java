@@ -0,0 +1,26 @@
+package org.cross.cauth.Jwt;
+
+/**
+ * Algorithm used to sign client tokens of an application.
+ * HS256 shares the secret with relying services, the asymmetric ones
+ * only publish their public key through the JWKS endpoint.
+ */
+public enum TokenSigningAlgorithm {
+    HS256(null),
+    ES256("EC"),
+    EdDSA("Ed25519");
+
+    private final String keyFactoryAlgorithm;
+
+    TokenSigningAlgorithm(String keyFactoryAlgorithm) {
+        this.keyFactoryAlgorithm = keyFactoryAlgorithm;
+    }
+
+    public boolean isAsymmetric(){
+        return keyFactoryAlgorithm != null;
+    }
+
+    String getKeyFactoryAlgorithm(){
+        return keyFactoryAlgorithm;
+    }
+}
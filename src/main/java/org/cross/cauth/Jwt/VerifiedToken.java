@@ -0,0 +1,21 @@
+package org.cross.cauth.Jwt;
+
+import java.time.Instant;
+
+/**
+ * Result of a single parse and signature check of an organization token.
+ * @param subject token subject (organization email)
+ * @param role value of the <code>role</code> claim, may be <code>null</code>
+ * @param expiresAt token expiry
+ * @param issuer token issuer
+ */
+public record VerifiedToken(
+        String subject,
+        String role,
+        Instant expiresAt,
+        String issuer
+) {
+    public boolean isExpired(){
+        return expiresAt != null && expiresAt.isBefore(Instant.now());
+    }
+}
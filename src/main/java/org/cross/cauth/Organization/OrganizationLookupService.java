@@ -0,0 +1,69 @@
+package org.cross.cauth.Organization;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.cross.cauth.Organization.dto.OrgSnapshot;
+import org.cross.cauth.Organization.repository.OrganizationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cached organization lookups by email, so admin requests do not load the organization every time.
+ * Only hits are cached: an organization registered a moment ago is never reported missing.
+ */
+@Service
+public class OrganizationLookupService {
+    private final OrganizationRepository organizationRepository;
+    private final Cache<String, OrgSnapshot> organizations;
+
+    public OrganizationLookupService(
+            OrganizationRepository organizationRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.organization-cache.max-size:10000}") long maxSize,
+            @Value("${app.organization-cache.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.organizationRepository = organizationRepository;
+        this.organizations = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, organizations, "organizations");
+    }
+
+    /**
+     * @param email organization email
+     * @return snapshot of the organization, a changed organization may be served for up to the configured ttl on other nodes
+     */
+    public Optional<OrgSnapshot> find(String email){
+        if(email == null){
+            return Optional.empty();
+        }
+
+        OrgSnapshot cached = organizations.getIfPresent(email);
+        if(cached != null){
+            return Optional.of(cached);
+        }
+
+        Optional<OrgSnapshot> loaded = organizationRepository.findByEmail(email).map(OrgSnapshot::of);
+        loaded.ifPresent(snapshot -> organizations.put(email, snapshot));
+
+        return loaded;
+    }
+
+    /**
+     * Call after registering or changing an organization
+     * @param email organization email
+     */
+    public void invalidate(String email){
+        if(email != null){
+            organizations.invalidate(email);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.cross.cauth.Exception.InvalidCredentialsException;
 import org.cross.cauth.Organization.domain.Organization;
 import org.cross.cauth.Organization.dto.CreateOrgDto;
+import org.cross.cauth.Organization.dto.OrgCredentials;
 import org.cross.cauth.Organization.dto.OrgPublicDto;
 import org.cross.cauth.Organization.mapper.OrgMapper;
 import org.cross.cauth.Organization.repository.OrganizationRepository;
@@ -11,12 +12,15 @@ import org.cross.cauth.utils.CredentialSecurityManager;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class OrganizationService {
     private final OrganizationRepository organizationRepository;
     private final CredentialSecurityManager credentialSecurityManager;
+    private final OrganizationStatusService organizationStatusService;
+    private final OrganizationLookupService organizationLookupService;
 
     public List<OrgPublicDto> getAllOrgs(){
         return organizationRepository.findAll()
@@ -38,7 +42,11 @@ public class OrganizationService {
 
         org.setHashedPassword(hashedPassword);
 
-        return organizationRepository.save(org);
+        Organization saved = organizationRepository.save(org);
+        organizationStatusService.invalidate(email);
+        organizationLookupService.invalidate(email);
+
+        return saved;
     }
 
     public OrgPublicDto registerOrganizationAndGetDto(CreateOrgDto dto){
@@ -54,15 +62,43 @@ public class OrganizationService {
     }
 
     public OrgPublicDto getOrganizationDtoByEmail(String email){
-        return OrgMapper.toPublicDto(getOrganizationByEmail(email));
+        return OrgMapper.toPublicDto(
+                organizationLookupService.find(email)
+                        .orElseThrow(() -> new InvalidCredentialsException("invalid email"))
+        );
     }
 
+    /**
+     * Checks an organization's password with a single projection query, no entity is loaded
+     * @param email organization email
+     * @param plain entered password
+     * @return <code>true</code> if the organization exists and the password matches
+     */
     public boolean verifyPassword(String email, String plain){
-        String hash = getOrganizationByEmail(email).getHashedPassword();
-        return credentialSecurityManager.isValid(plain,hash);
+        Optional<OrgCredentials> credentials = organizationRepository.findCredentialsByEmail(email);
+
+        if(credentials.isEmpty()){
+            return false;
+        }
+
+        String hash = credentials.get().hashedPassword();
+
+        boolean valid = credentialSecurityManager.isValid(plain,hash);
+
+        //upgrade hashes made with outdated parameters while the plain password is at hand
+        if(valid && credentialSecurityManager.needsRehash(hash)){
+            organizationRepository.replaceHashedPassword(
+                    credentials.get().id(),
+                    hash,
+                    credentialSecurityManager.encode(plain)
+            );
+            organizationLookupService.invalidate(email);
+        }
+
+        return valid;
     }
 
     public boolean doExist(String email){
-        return organizationRepository.existsByEmail(email);
+        return organizationLookupService.find(email).isPresent();
     }
 }
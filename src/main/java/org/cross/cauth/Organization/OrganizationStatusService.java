@@ -0,0 +1,51 @@
+package org.cross.cauth.Organization;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.cross.cauth.Organization.repository.OrganizationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Short-lived view of whether an organization may still authenticate.
+ * Used by stateless authentication instead of loading the full organization per request.
+ */
+@Service
+public class OrganizationStatusService {
+    private final LoadingCache<String, Boolean> activeOrganizations;
+
+    public OrganizationStatusService(
+            OrganizationRepository organizationRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.org-status-cache.max-size:10000}") long maxSize,
+            @Value("${app.auth.org-status-cache.ttl-seconds:30}") long ttlSeconds
+    ) {
+        this.activeOrganizations = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build(email -> organizationRepository.findActiveFlagByEmail(email).orElse(false));
+
+        CaffeineCacheMetrics.monitor(meterRegistry, activeOrganizations, "organizationStatus");
+    }
+
+    /**
+     * @param email organization email
+     * @return <code>true</code> if the organization exists and is active, answer may be up to the configured ttl old
+     */
+    public boolean isActive(String email){
+        return Boolean.TRUE.equals(activeOrganizations.get(email));
+    }
+
+    /**
+     * Drops the cached status so the next request re-reads it, call after disabling an organization
+     * @param email organization email
+     */
+    public void invalidate(String email){
+        activeOrganizations.invalidate(email);
+    }
+}
@@ -2,6 +2,8 @@ package org.cross.cauth.Organization.domain;
 
 
 import jakarta.persistence.*;
+import org.cross.cauth.utils.UuidV7Generator;
+import org.hibernate.annotations.UuidGenerator;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -13,7 +15,8 @@ import java.util.UUID;
 @Setter
 public class Organization {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
     private String orgName;
@@ -0,0 +1,12 @@
+package org.cross.cauth.Organization.dto;
+
+import java.util.UUID;
+
+/**
+ * Read-only projection of the columns a password check needs, loaded without a managed entity
+ * @param id organization id
+ * @param hashedPassword stored password hash
+ * @param isActive whether the organization is active
+ */
+public record OrgCredentials(UUID id, String hashedPassword, boolean isActive) {
+}
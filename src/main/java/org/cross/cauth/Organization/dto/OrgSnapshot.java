@@ -0,0 +1,39 @@
+package org.cross.cauth.Organization.dto;
+
+import org.cross.cauth.Organization.domain.Organization;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Immutable copy of an organization row, safe to share between requests from a cache
+ * @param id row id
+ * @param orgName organization name
+ * @param email organization email
+ * @param hashedPassword stored password hash
+ * @param isActive whether the organization is active
+ * @param joinedOn registration date
+ * @param role granted role
+ */
+public record OrgSnapshot(
+        UUID id,
+        String orgName,
+        String email,
+        String hashedPassword,
+        boolean isActive,
+        LocalDate joinedOn,
+        String role
+) {
+
+    public static OrgSnapshot of(Organization org){
+        return new OrgSnapshot(
+                org.getId(),
+                org.getOrgName(),
+                org.getEmail(),
+                org.getHashedPassword(),
+                org.isActive(),
+                org.getJoinedOn(),
+                org.getRole()
+        );
+    }
+}
@@ -3,6 +3,7 @@ package org.cross.cauth.Organization.mapper;
 import org.cross.cauth.Organization.domain.Organization;
 import org.cross.cauth.Organization.dto.CreateOrgDto;
 import org.cross.cauth.Organization.dto.OrgPublicDto;
+import org.cross.cauth.Organization.dto.OrgSnapshot;
 
 public class OrgMapper {
 
@@ -22,4 +23,12 @@ public class OrgMapper {
                 .isActive(org.isActive())
                 .build();
     }
+
+    public static OrgPublicDto toPublicDto(OrgSnapshot org){
+        return OrgPublicDto.builder()
+                .name(org.orgName())
+                .email(org.email())
+                .isActive(org.isActive())
+                .build();
+    }
 }
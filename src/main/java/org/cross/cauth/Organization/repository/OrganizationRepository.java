@@ -1,8 +1,13 @@
 package org.cross.cauth.Organization.repository;
 
 import org.cross.cauth.Organization.domain.Organization;
+import org.cross.cauth.Organization.dto.OrgCredentials;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -12,4 +17,22 @@ public interface OrganizationRepository extends JpaRepository<Organization, UUID
     Optional<Organization> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    @Query("select o.isActive from Organization o where o.email = :email")
+    Optional<Boolean> findActiveFlagByEmail(@Param("email") String email);
+
+    /**
+     * Only the columns a login needs, nothing enters the persistence context
+     */
+    @Query("select new org.cross.cauth.Organization.dto.OrgCredentials(o.id, o.hashedPassword, o.isActive) from Organization o where o.email = :email")
+    Optional<OrgCredentials> findCredentialsByEmail(@Param("email") String email);
+
+    /**
+     * Replaces the password hash only if it is still the one that was verified
+     * @return number of updated rows
+     */
+    @Transactional
+    @Modifying
+    @Query("update Organization o set o.hashedPassword = :newHash where o.id = :id and o.hashedPassword = :oldHash")
+    int replaceHashedPassword(@Param("id") UUID id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
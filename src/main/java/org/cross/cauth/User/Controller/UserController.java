@@ -1,17 +1,26 @@
 package org.cross.cauth.User.Controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.cross.cauth.ApiResponse;
+import org.cross.cauth.CursorPage;
+import org.cross.cauth.User.Service.UserExportFormat;
+import org.cross.cauth.User.Service.UserExportService;
+import org.cross.cauth.User.Service.UserImportService;
 import org.cross.cauth.User.Service.UserService;
 import org.cross.cauth.User.dto.*;
 import org.cross.cauth.User.mapper.UserMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -19,11 +28,15 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class UserController {
     private final UserService userService;
+    private final UserExportService userExportService;
+    private final UserImportService userImportService;
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<UserResponseDto>>> getAllUsers() {
-        List<UserResponseDto> users = userService.getAllUsers();
-        ApiResponse<List<UserResponseDto>> response = ApiResponse.<List<UserResponseDto>>builder()
+    public ResponseEntity<ApiResponse<CursorPage<UserResponseDto>>> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        CursorPage<UserResponseDto> users = userService.getAllUsers(cursor, size);
+        ApiResponse<CursorPage<UserResponseDto>> response = ApiResponse.<CursorPage<UserResponseDto>>builder()
                 .success(true)
                 .message("Users retrieved successfully")
                 .timestamp(LocalDateTime.now())
@@ -147,9 +160,12 @@ public class UserController {
     }
 
     @GetMapping("/app/{appId}")
-    public ResponseEntity<ApiResponse<List<UserResponseDto>>> getUsersByAppId(@PathVariable String appId) {
-        List<UserResponseDto> users = userService.getUsersByAppId(appId);
-        ApiResponse<List<UserResponseDto>> response = ApiResponse.<List<UserResponseDto>>builder()
+    public ResponseEntity<ApiResponse<CursorPage<UserResponseDto>>> getUsersByAppId(
+            @PathVariable String appId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        CursorPage<UserResponseDto> users = userService.getUsersByAppId(appId, cursor, size);
+        ApiResponse<CursorPage<UserResponseDto>> response = ApiResponse.<CursorPage<UserResponseDto>>builder()
                 .success(true)
                 .message("Users retrieved successfully")
                 .timestamp(LocalDateTime.now())
@@ -158,10 +174,32 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/app/{appId}/export")
+    public ResponseEntity<StreamingResponseBody> exportUsersByAppId(
+            @PathVariable String appId,
+            @RequestParam(defaultValue = "NDJSON") UserExportFormat format) {
+        StreamingResponseBody body = userExportService.exportUsersByAppId(appId, format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users-" + appId + "." + format.getFileExtension() + "\"")
+                .body(body);
+    }
+
+    @PostMapping(value = "/app/{appId}/import", consumes = "application/x-ndjson", produces = "application/x-ndjson")
+    public void importUsers(
+            @PathVariable String appId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        userImportService.importUsers(appId, request.getInputStream(), response.getOutputStream());
+    }
+
     @GetMapping("/unverified")
-    public ResponseEntity<ApiResponse<List<UserResponseDto>>> getUnverifiedUsers() {
-        List<UserResponseDto> users = userService.getUnverifiedUsers();
-        ApiResponse<List<UserResponseDto>> response = ApiResponse.<List<UserResponseDto>>builder()
+    public ResponseEntity<ApiResponse<CursorPage<UserResponseDto>>> getUnverifiedUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        CursorPage<UserResponseDto> users = userService.getUnverifiedUsers(cursor, size);
+        ApiResponse<CursorPage<UserResponseDto>> response = ApiResponse.<CursorPage<UserResponseDto>>builder()
                 .success(true)
                 .message("Unverified users retrieved successfully")
                 .timestamp(LocalDateTime.now())
@@ -0,0 +1,85 @@
+package org.cross.cauth.User.Service;
+
+import org.cross.cauth.User.repository.AppUserCountRepository;
+import org.cross.cauth.User.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Periodically recounts each app's users and corrects its maintained counter.
+ * The counter row is locked before counting, so user writes of that app wait and none are missed;
+ * each app is reconciled in its own short transaction. Running on several nodes at once is harmless.
+ */
+@Service
+public class UserCountReconciler {
+    private final AppUserCountRepository appUserCountRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    Logger logger = LoggerFactory.getLogger(UserCountReconciler.class);
+
+    public UserCountReconciler(
+            AppUserCountRepository appUserCountRepository,
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.user-counts.reconcile-enabled:true}") boolean enabled
+    ) {
+        this.appUserCountRepository = appUserCountRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.user-counts.reconcile-initial-delay:PT5M}",
+            fixedDelayString = "${app.user-counts.reconcile-interval:PT1H}"
+    )
+    public void reconcileAll(){
+        if(!enabled){
+            return;
+        }
+
+        int corrected = 0;
+
+        for(String appId : appUserCountRepository.findAppIdsToReconcile()){
+            try {
+                if(reconcile(appId)){
+                    corrected++;
+                }
+            } catch (RuntimeException e) {
+                logger.warn("reconcileAll : could not reconcile user count of app {}", appId, e);
+            }
+        }
+
+        logger.info("reconcileAll : user counts reconciled, {} corrected", corrected);
+    }
+
+    /**
+     * @param appId App Id
+     * @return <code>true</code> if the counter had drifted and was corrected
+     */
+    public boolean reconcile(String appId){
+        Boolean corrected = transactionTemplate.execute(status -> {
+            appUserCountRepository.increment(appId, 0);
+            long counted = appUserCountRepository.lockCount(appId).orElse(0L);
+            long actual = userRepository.countByAppId(appId);
+
+            if(counted == actual){
+                return false;
+            }
+
+            logger.warn("reconcile : user count of app {} drifted, counter {} actual {}", appId, counted, actual);
+            appUserCountRepository.setCount(appId, actual);
+
+            return true;
+        });
+
+        return Boolean.TRUE.equals(corrected);
+    }
+}
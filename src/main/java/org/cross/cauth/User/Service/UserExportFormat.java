@@ -0,0 +1,17 @@
+package org.cross.cauth.User.Service;
+
+import lombok.Getter;
+
+@Getter
+public enum UserExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    UserExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+}
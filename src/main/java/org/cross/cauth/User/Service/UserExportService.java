@@ -0,0 +1,157 @@
+package org.cross.cauth.User.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.cross.cauth.Application.Service.ApplicationLookupService;
+import org.cross.cauth.Exception.ApplicationNotFoundException;
+import org.cross.cauth.User.domain.User;
+import org.cross.cauth.User.dto.UserResponseDto;
+import org.cross.cauth.User.mapper.UserMapper;
+import org.cross.cauth.User.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams an application's users straight from a database cursor to the response.
+ * Rows are written as they are read and detached right after, so memory stays constant
+ * no matter how many users the application has.
+ */
+@Service
+public class UserExportService {
+    private static final String CSV_HEADER = "id,authId,email,appId,isEmailVerified,phoneNumber,createdAt,updatedAt,role";
+
+    private final UserRepository userRepository;
+    private final ApplicationLookupService applicationLookupService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    Logger logger = LoggerFactory.getLogger(UserExportService.class);
+
+    public UserExportService(
+            UserRepository userRepository,
+            ApplicationLookupService applicationLookupService,
+            EntityManager entityManager,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.userRepository = userRepository;
+        this.applicationLookupService = applicationLookupService;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Prepares the export of all users of an app. The app is checked up front so a bad app id
+     * still gets a normal error response, the rows are only read once the body is written.
+     * @param appId The appId
+     * @param format output format
+     * @return body writing one row per user
+     * @throws ApplicationNotFoundException if app id is invalid
+     */
+    public StreamingResponseBody exportUsersByAppId(String appId, UserExportFormat format){
+        if(!applicationLookupService.exists(appId)){
+            throw new ApplicationNotFoundException("Invalid app id");
+        }
+
+        // the body is written on an async thread, the cursor needs its own transaction there
+        return outputStream -> readOnlyTransaction.executeWithoutResult(status -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+
+            try (Stream<User> users = userRepository.streamByAppId(appId)) {
+                long rows = write(writer, users, format);
+                writer.flush();
+
+                logger.info("exportUsersByAppId : exported {} users of app {} as {}", rows, appId, format);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private long write(Writer writer, Stream<User> users, UserExportFormat format) throws IOException {
+        if(format == UserExportFormat.CSV){
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long rows = 0;
+        Iterator<User> iterator = users.iterator();
+
+        while (iterator.hasNext()){
+            User user = iterator.next();
+            UserResponseDto dto = UserMapper.toResponseDto(user);
+
+            // the row is fully read, keep the persistence context from growing with the export
+            entityManager.detach(user);
+
+            if(format == UserExportFormat.CSV){
+                writeCsvRow(writer, dto);
+            } else {
+                writer.write(objectMapper.writeValueAsString(dto));
+            }
+            writer.write('\n');
+
+            rows++;
+        }
+
+        return rows;
+    }
+
+    private void writeCsvRow(Writer writer, UserResponseDto dto) throws IOException {
+        writer.write(csv(dto.getId()));
+        writer.write(',');
+        writer.write(csv(dto.getAuthId()));
+        writer.write(',');
+        writer.write(csv(dto.getEmail()));
+        writer.write(',');
+        writer.write(csv(dto.getAppId()));
+        writer.write(',');
+        writer.write(csv(dto.getIsEmailVerified()));
+        writer.write(',');
+        writer.write(csv(dto.getPhoneNumber()));
+        writer.write(',');
+        writer.write(csv(dto.getCreatedAt()));
+        writer.write(',');
+        writer.write(csv(dto.getUpdatedAt()));
+        writer.write(',');
+        writer.write(csv(dto.getRole()));
+    }
+
+    /**
+     * Formats one CSV field, RFC 4180 quoting plus a leading quote on anything a spreadsheet would read as a formula
+     */
+    static String csv(Object value){
+        if(value == null){
+            return "";
+        }
+
+        String text = value.toString();
+
+        // keep spreadsheet apps from evaluating user supplied values as formulas
+        if(!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0){
+            text = "'" + text;
+        }
+
+        if(text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0){
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+
+        return text;
+    }
+}
@@ -0,0 +1,329 @@
+package org.cross.cauth.User.Service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.cross.cauth.Application.Service.ApplicationLookupService;
+import org.cross.cauth.Exception.ApplicationNotFoundException;
+import org.cross.cauth.Exception.HashingCapacityExceededException;
+import org.cross.cauth.User.domain.User;
+import org.cross.cauth.User.dto.BulkImportResultDto;
+import org.cross.cauth.User.dto.BulkImportUserDto;
+import org.cross.cauth.User.repository.AppUserCountRepository;
+import org.cross.cauth.User.repository.UserRepository;
+import org.cross.cauth.utils.CredentialSecurityManager;
+import org.cross.cauth.utils.UniqueIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Imports users from an NDJSON stream in fixed size chunks. Each chunk costs one query to find
+ * existing emails and one batched insert; plain passwords are
+ * hashed concurrently on the hashing pool. One result line is written back per input line as
+ * soon as its chunk is done.
+ */
+@Service
+public class UserImportService {
+    private final UserRepository userRepository;
+    private final AppUserCountRepository appUserCountRepository;
+    private final ApplicationLookupService applicationLookupService;
+    private final CredentialSecurityManager passwordEncoder;
+    private final UniqueIdGenerator appIdGenerator;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+    private final int hashConcurrency;
+
+    Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    /**
+     * A line waiting to be inserted
+     */
+    private record PendingUser(long line, BulkImportUserDto dto, String hashedPassword) {}
+
+    public UserImportService(
+            UserRepository userRepository,
+            AppUserCountRepository appUserCountRepository,
+            ApplicationLookupService applicationLookupService,
+            CredentialSecurityManager passwordEncoder,
+            UniqueIdGenerator appIdGenerator,
+            EntityManager entityManager,
+            ObjectMapper objectMapper,
+            Validator validator,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.users.import.batch-size:500}") int batchSize,
+            @Value("${app.users.import.hash-concurrency:2}") int hashConcurrency
+    ) {
+        this.userRepository = userRepository;
+        this.appUserCountRepository = appUserCountRepository;
+        this.applicationLookupService = applicationLookupService;
+        this.passwordEncoder = passwordEncoder;
+        this.appIdGenerator = appIdGenerator;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.hashConcurrency = hashConcurrency;
+    }
+
+    /**
+     * @param appId The appId the users are imported into
+     * @param input NDJSON stream of {@link BulkImportUserDto}
+     * @param output receives one {@link BulkImportResultDto} line per input line
+     * @throws ApplicationNotFoundException if app id is invalid, before anything is read or written
+     */
+    public void importUsers(String appId, InputStream input, OutputStream output) throws IOException {
+        if(!applicationLookupService.exists(appId)){
+            throw new ApplicationNotFoundException("Application not found: " + appId);
+        }
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        ObjectWriter resultWriter = objectMapper.writerFor(BulkImportResultDto.class);
+
+        long line = 0;
+        long created = 0;
+
+        try (
+                MappingIterator<BulkImportUserDto> rows = objectMapper.readerFor(BulkImportUserDto.class).readValues(input);
+                ExecutorService hashingFanOut = Executors.newVirtualThreadPerTaskExecutor()
+        ) {
+            List<Map.Entry<Long, BulkImportUserDto>> chunk = new ArrayList<>(batchSize);
+            boolean malformed = false;
+
+            while (!malformed){
+                try {
+                    if(!rows.hasNextValue()){
+                        break;
+                    }
+                    chunk.add(Map.entry(line + 1, rows.nextValue()));
+                    line++;
+                } catch (IOException e) {
+                    // the stream cannot be resynchronised after malformed json, finish what was read and stop
+                    malformed = true;
+                }
+
+                if(!chunk.isEmpty() && (chunk.size() == batchSize || malformed)){
+                    created += writeResults(writer, resultWriter, importChunk(appId, chunk, hashingFanOut));
+                    chunk.clear();
+                }
+            }
+
+            if(!chunk.isEmpty()){
+                created += writeResults(writer, resultWriter, importChunk(appId, chunk, hashingFanOut));
+            }
+
+            if(malformed){
+                writeResult(writer, resultWriter, BulkImportResultDto.failed(line + 1, null, "Malformed JSON, import stopped"));
+            }
+        }
+
+        writer.flush();
+        logger.info("importUsers : imported {} of {} users into app {}", created, line, appId);
+    }
+
+    private List<BulkImportResultDto> importChunk(String appId, List<Map.Entry<Long, BulkImportUserDto>> chunk, ExecutorService hashingFanOut){
+        Map<Long, BulkImportResultDto> results = new TreeMap<>();
+        Map<String, Map.Entry<Long, BulkImportUserDto>> candidates = new LinkedHashMap<>();
+
+        for(Map.Entry<Long, BulkImportUserDto> row : chunk){
+            long line = row.getKey();
+            BulkImportUserDto dto = row.getValue();
+
+            String problem = validate(dto);
+            if(problem != null){
+                results.put(line, BulkImportResultDto.failed(line, dto.getEmail(), problem));
+                continue;
+            }
+
+            String key = dto.getEmail().toLowerCase(Locale.ROOT);
+            if(candidates.putIfAbsent(key, row) != null){
+                results.put(line, BulkImportResultDto.skipped(line, dto.getEmail(), "Duplicate email in import"));
+            }
+        }
+
+        if(!candidates.isEmpty()){
+            Set<String> existing = userRepository.findExistingEmails(appId, candidates.keySet());
+
+            existing.forEach(email -> {
+                Map.Entry<Long, BulkImportUserDto> row = candidates.remove(email);
+                results.put(row.getKey(), BulkImportResultDto.skipped(row.getKey(), row.getValue().getEmail(), "User already exists"));
+            });
+        }
+
+        List<PendingUser> pending = hashPasswords(candidates.values(), hashingFanOut, results);
+
+        if(!pending.isEmpty()){
+            insert(appId, pending, results);
+        }
+
+        return new ArrayList<>(results.values());
+    }
+
+    private String validate(BulkImportUserDto dto){
+        Set<ConstraintViolation<BulkImportUserDto>> violations = validator.validate(dto);
+        if(!violations.isEmpty()){
+            return violations.iterator().next().getMessage();
+        }
+
+        boolean hasPassword = dto.getPassword() != null;
+        boolean hasHash = dto.getHashedPassword() != null;
+
+        if(hasPassword == hasHash){
+            return "Exactly one of password or hashedPassword is required";
+        }
+
+        if(hasHash && !passwordEncoder.supports(dto.getHashedPassword())){
+            return "Unsupported password hash format";
+        }
+
+        // the cost parameters travel inside the hash, an oversized one would stall every later login
+        if(hasHash && !passwordEncoder.isWithinCostLimits(dto.getHashedPassword())){
+            return "Password hash cost exceeds the allowed limits";
+        }
+
+        return null;
+    }
+
+    private List<PendingUser> hashPasswords(
+            Collection<Map.Entry<Long, BulkImportUserDto>> rows,
+            ExecutorService hashingFanOut,
+            Map<Long, BulkImportResultDto> results
+    ){
+        // bound how much of the hashing pool an import may hold so logins keep their share
+        Semaphore inFlight = new Semaphore(hashConcurrency);
+        Map<Long, Future<String>> hashes = new LinkedHashMap<>();
+
+        for(Map.Entry<Long, BulkImportUserDto> row : rows){
+            BulkImportUserDto dto = row.getValue();
+
+            if(dto.getHashedPassword() != null){
+                continue;
+            }
+
+            hashes.put(row.getKey(), hashingFanOut.submit(() -> {
+                inFlight.acquire();
+                try {
+                    return passwordEncoder.encode(dto.getPassword());
+                } finally {
+                    inFlight.release();
+                }
+            }));
+        }
+
+        List<PendingUser> pending = new ArrayList<>(rows.size());
+
+        for(Map.Entry<Long, BulkImportUserDto> row : rows){
+            long line = row.getKey();
+            BulkImportUserDto dto = row.getValue();
+
+            if(dto.getHashedPassword() != null){
+                pending.add(new PendingUser(line, dto, dto.getHashedPassword()));
+                continue;
+            }
+
+            try {
+                pending.add(new PendingUser(line, dto, hashes.get(line).get()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while hashing imported passwords", e);
+            } catch (Exception e) {
+                String message = e.getCause() instanceof HashingCapacityExceededException
+                        ? "Server is busy, please retry this user"
+                        : "Password could not be hashed";
+                results.put(line, BulkImportResultDto.failed(line, dto.getEmail(), message));
+            }
+        }
+
+        return pending;
+    }
+
+    private void insert(String appId, List<PendingUser> pending, Map<Long, BulkImportResultDto> results){
+        Map<String, PendingUser> byAuthId = new LinkedHashMap<>();
+        pending.forEach(user -> byAuthId.put(appIdGenerator.generate().replace("APP.", "user."), user));
+
+        List<User> users = byAuthId.entrySet().stream()
+                .map(entry -> toEntity(appId, entry.getKey(), entry.getValue()))
+                .toList();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAll(users);
+                entityManager.flush();
+                appUserCountRepository.increment(appId, users.size());
+                entityManager.clear();
+            });
+        } catch (DataIntegrityViolationException e) {
+            // another writer inserted one of these emails since the existence check, the whole batch rolled back
+            logger.warn("insert : batch of {} users for app {} conflicted with a concurrent write", users.size(), appId);
+            pending.forEach(user -> results.put(user.line(), BulkImportResultDto.failed(
+                    user.line(), user.dto().getEmail(), "Conflicting concurrent write, please retry this user"
+            )));
+            return;
+        }
+
+        byAuthId.forEach((authId, user) -> results.put(user.line(), BulkImportResultDto.created(
+                user.line(), user.dto().getEmail(), authId
+        )));
+    }
+
+    private User toEntity(String appId, String authId, PendingUser pending){
+        BulkImportUserDto dto = pending.dto();
+
+        User user = new User();
+        user.setAuthId(authId);
+        user.setEmail(dto.getEmail());
+        user.setAppId(appId);
+        user.setHashedPassword(pending.hashedPassword());
+        user.setPhoneNumber(dto.getPhoneNumber());
+        user.setIsEmailVerified(Boolean.TRUE.equals(dto.getIsEmailVerified()));
+        user.setRole("ROLE_USER");
+
+        return user;
+    }
+
+    private long writeResults(Writer writer, ObjectWriter resultWriter, List<BulkImportResultDto> results) throws IOException {
+        long created = 0;
+
+        for(BulkImportResultDto result : results){
+            writeResult(writer, resultWriter, result);
+            if("CREATED".equals(result.status())){
+                created++;
+            }
+        }
+
+        // hand this chunk's results to the client before reading the next one
+        writer.flush();
+
+        return created;
+    }
+
+    private void writeResult(Writer writer, ObjectWriter resultWriter, BulkImportResultDto result) throws IOException {
+        writer.write(resultWriter.writeValueAsString(result));
+        writer.write('\n');
+    }
+}
@@ -1,8 +1,8 @@
 package org.cross.cauth.User.Service;
 
 import lombok.RequiredArgsConstructor;
-import org.cross.cauth.Application.Repository.ApplicationRepository;
-import org.cross.cauth.Application.domain.Application;
+import org.cross.cauth.CursorPage;
+import org.cross.cauth.Application.Service.ApplicationLookupService;
 import org.cross.cauth.Exception.ApplicationNotFoundException;
 import org.cross.cauth.Exception.InvalidCredentialsException;
 import org.cross.cauth.Exception.UserAlreadyExistsException;
@@ -10,16 +10,24 @@ import org.cross.cauth.Exception.UserNotFoundException;
 import org.cross.cauth.User.domain.User;
 import org.cross.cauth.User.dto.CreateUserRequestDto;
 import org.cross.cauth.User.dto.UpdateUserRequestDto;
+import org.cross.cauth.User.dto.UserCredentials;
 import org.cross.cauth.User.dto.UserLoginRequestDto;
 import org.cross.cauth.User.dto.UserResponseDto;
 import org.cross.cauth.User.mapper.UserMapper;
+import org.cross.cauth.User.repository.AppUserCountRepository;
 import org.cross.cauth.User.repository.UserRepository;
 import org.cross.cauth.utils.CredentialSecurityManager;
+import org.cross.cauth.utils.PageCursor;
+import org.cross.cauth.utils.RefreshTokenService;
 import org.cross.cauth.utils.UniqueIdGenerator;
+import org.cross.cauth.utils.UuidV7Generator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -28,21 +36,33 @@ import java.util.UUID;
 @Transactional
 public class UserService {
     private final UserRepository userRepository;
-    private final ApplicationRepository applicationRepository;
+    private final AppUserCountRepository appUserCountRepository;
     private final CredentialSecurityManager passwordEncoder;
     private final UserMapper userMapper;
     private final UniqueIdGenerator appIdGenerator;
+    private final ApplicationLookupService applicationLookupService;
+    private final RefreshTokenService refreshTokenService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.pagination.max-page-size:200}")
+    private int maxPageSize;
 
     /**
-     * Get all users in the system
-     * @return List of all users as response DTOs
+     * Get a page of all users in the system, ordered by id
+     * @param cursor cursor of the previous page, <code>null</code> for the first page
+     * @param size page size, capped at the configured maximum
+     * @return CursorPage of users as response DTOs
      */
     @Transactional(readOnly = true)
-    public List<UserResponseDto> getAllUsers() {
-        return userRepository.findAll()
-                .stream()
-                .map(UserMapper::toResponseDto)
-                .toList();
+    public CursorPage<UserResponseDto> getAllUsers(String cursor, int size) {
+        int pageSize = PageCursor.clampSize(size, maxPageSize);
+
+        return CursorPage.of(
+                userRepository.findByIdGreaterThanOrderByIdAsc(PageCursor.decode(cursor), Limit.of(pageSize + 1)),
+                pageSize,
+                User::getId,
+                UserMapper::toResponseDto
+        );
     }
 
     /**
@@ -93,18 +113,23 @@ public class UserService {
     }
 
     /**
-     * Create a new user
+     * Create a new user. The password is hashed outside any transaction, only the insert holds a connection.
+     * Takes two round trips: an indexed email check so known duplicates never pay for a hash, then a
+     * conflict-aware insert that still rejects a duplicate from a concurrent signup. The id is generated
+     * here, so nothing is read back after the insert.
      * @param createUserDto The user creation request
      * @return User object of the created user
      * @throws UserAlreadyExistsException if user already exists
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User createUser(CreateUserRequestDto createUserDto) {
         // Validate appId exists
-        Application application = applicationRepository.findByAppId(createUserDto.getAppId())
-                .orElseThrow(() -> new ApplicationNotFoundException("Application not found: " + createUserDto.getAppId()));
+        if (!applicationLookupService.exists(createUserDto.getAppId())) {
+            throw new ApplicationNotFoundException("Application not found: " + createUserDto.getAppId());
+        }
 
-        // Check if user already exists with this email in this appId
-        if (userRepository.findByEmailAndAppId(createUserDto.getEmail(), createUserDto.getAppId()).isPresent()) {
+        // Reject known duplicates before paying for a hash
+        if (userRepository.existsByEmailAndAppId(createUserDto.getEmail(), createUserDto.getAppId())) {
             throw new UserAlreadyExistsException("User already exists with email: " + createUserDto.getEmail() + " in appId: " + createUserDto.getAppId());
         }
 
@@ -115,12 +140,25 @@ public class UserService {
         String hashedPassword = passwordEncoder.encode(createUserDto.getPassword());
 
         // Create user entity
-        User user = UserMapper.toEntity(createUserDto, application, authId, hashedPassword);
+        User user = UserMapper.toEntity(createUserDto, createUserDto.getAppId(), authId, hashedPassword);
+        user.setId(UuidV7Generator.generate());
         user.setRole("ROLE_USER");
 
-        // Save user
+        // Insert user, the unique (app_id, lower(email)) index still rejects duplicates from concurrent signups
+        boolean inserted = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (userRepository.insertIfAbsent(user) == 0) {
+                return false;
+            }
+
+            appUserCountRepository.increment(user.getAppId(), 1);
+            return true;
+        }));
 
-        return userRepository.save(user);
+        if (!inserted) {
+            throw new UserAlreadyExistsException("User already exists with email: " + createUserDto.getEmail() + " in appId: " + createUserDto.getAppId());
+        }
+
+        return user;
     }
 
     /**
@@ -137,18 +175,51 @@ public class UserService {
     }
 
     /**
-     *Validates user credentials by checking if user exists and password is correct
+     *Validates user credentials by checking if user exists and password is correct.
+     * Runs outside a transaction, the hash is read through a projection and no connection is held while hashing.
      * @param email The user's email address
      * @param appId The application ID the user belongs to
      * @param password The password to verify
      * @return <code>true</code> if user exists and password is valid, <code>false</code> otherwise
      * @throws UserNotFoundException if user with given email and appId does not exist
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public boolean isValidUser(String email, String appId, String password){
-        User user = userRepository.findByEmailAndAppId(email, appId)
+        UserCredentials credentials = userRepository.findCredentialsByEmailAndAppId(email, appId)
                 .orElseThrow(() -> new UserNotFoundException("user does not exist"));
 
-        return verifyUserPassword(user, password);
+        return verifyCredentials(credentials, password);
+    }
+
+    /**
+     * Checks the password against the projected hash and upgrades an outdated hash
+     * @param credentials projected login columns of the user
+     * @param password The password to verify
+     * @return <code>true</code> if password is correct otherwise <code>false</code>
+     */
+    private boolean verifyCredentials(UserCredentials credentials, String password){
+        boolean valid = passwordEncoder.isValid(password, credentials.hashedPassword());
+
+        if(valid){
+            rehashIfOutdated(credentials, password);
+        }
+
+        return valid;
+    }
+
+    /**
+     * Re-encodes the stored hash with current hashing parameters, the plain password is only known right after login
+     * @param credentials projected login columns of the user whose password was just verified
+     * @param password The verified plain password
+     */
+    private void rehashIfOutdated(UserCredentials credentials, String password){
+        if(passwordEncoder.needsRehash(credentials.hashedPassword())){
+            userRepository.replaceHashedPassword(
+                    credentials.id(),
+                    credentials.hashedPassword(),
+                    passwordEncoder.encode(password)
+            );
+        }
     }
 
     /**
@@ -176,12 +247,19 @@ public class UserService {
             hashedPassword = passwordEncoder.encode(updateUserDto.getPassword());
         }
 
+        String previousEmail = user.getEmail();
+
         // Update user entity
         UserMapper.updateEntityFromDto(user, updateUserDto, hashedPassword);
 
         // Save updated user
         User updatedUser = userRepository.save(user);
 
+        // sessions are bound to the old email and password
+        if (hashedPassword != null || !previousEmail.equals(updatedUser.getEmail())) {
+            refreshTokenService.revokeAll(updatedUser.getAppId(), previousEmail);
+        }
+
         return UserMapper.toResponseDto(updatedUser);
     }
 
@@ -195,6 +273,11 @@ public class UserService {
                 .orElseThrow(() -> new UserNotFoundException("User not found with auth ID: " + authId));
 
         userRepository.delete(user);
+        // row is gone before the counter is locked, the same order createUser uses
+        userRepository.flush();
+        appUserCountRepository.increment(user.getAppId(), -1);
+
+        refreshTokenService.revokeAll(user.getAppId(), user.getEmail());
     }
 
     /**
@@ -203,17 +286,18 @@ public class UserService {
      * @return UserResponseDto if authentication successful
      * @throws UserNotFoundException if user not found or password invalid
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserResponseDto authenticateUser(UserLoginRequestDto loginDto) {
-        User user = userRepository.findByEmailAndAppId(loginDto.getEmail(), loginDto.getAppId())
+        UserCredentials credentials = userRepository.findCredentialsByEmailAndAppId(loginDto.getEmail(), loginDto.getAppId())
                 .orElseThrow(() -> new UserNotFoundException("Invalid email or password"));
 
         // Verify password
-        if (!passwordEncoder.isValid(loginDto.getPassword(), user.getHashedPassword())) {
+        if (!verifyCredentials(credentials, loginDto.getPassword())) {
             throw new InvalidCredentialsException("Invalid email or password");
         }
 
-        return UserMapper.toResponseDto(user);
+        // full row is only read once the password checked out
+        return getUserByAuthId(credentials.authId());
     }
 
     /**
@@ -244,32 +328,45 @@ public class UserService {
     }
 
     /**
-     * Get all users for a specific appId
+     * Get a page of users for a specific appId, ordered by id
      * @param appId The appId ID
-     * @return List of users in the appId
+     * @param cursor cursor of the previous page, <code>null</code> for the first page
+     * @param size page size, capped at the configured maximum
+     * @return CursorPage of users in the appId
      */
     @Transactional(readOnly = true)
-    public List<UserResponseDto> getUsersByAppId(String appId) {
+    public CursorPage<UserResponseDto> getUsersByAppId(String appId, String cursor, int size) {
         // Validate appId exists
-        applicationRepository.findByAppId(appId)
-                .orElseThrow(() -> new UserNotFoundException("Application not found: " + appId));
+        if (!applicationLookupService.exists(appId)) {
+            throw new UserNotFoundException("Application not found: " + appId);
+        }
+
+        int pageSize = PageCursor.clampSize(size, maxPageSize);
 
-        return userRepository.findByAppId(appId)
-                .stream()
-                .map(UserMapper::toResponseDto)
-                .toList();
+        return CursorPage.of(
+                userRepository.findByAppIdAndIdGreaterThanOrderByIdAsc(appId, PageCursor.decode(cursor), Limit.of(pageSize + 1)),
+                pageSize,
+                User::getId,
+                UserMapper::toResponseDto
+        );
     }
 
     /**
-     * Get all unverified users
-     * @return List of unverified users
+     * Get a page of unverified users, ordered by id
+     * @param cursor cursor of the previous page, <code>null</code> for the first page
+     * @param size page size, capped at the configured maximum
+     * @return CursorPage of unverified users
      */
     @Transactional(readOnly = true)
-    public List<UserResponseDto> getUnverifiedUsers() {
-        return userRepository.findByIsEmailVerified(false)
-                .stream()
-                .map(UserMapper::toResponseDto)
-                .toList();
+    public CursorPage<UserResponseDto> getUnverifiedUsers(String cursor, int size) {
+        int pageSize = PageCursor.clampSize(size, maxPageSize);
+
+        return CursorPage.of(
+                userRepository.findByIsEmailVerifiedAndIdGreaterThanOrderByIdAsc(false, PageCursor.decode(cursor), Limit.of(pageSize + 1)),
+                pageSize,
+                User::getId,
+                UserMapper::toResponseDto
+        );
     }
 
     /**
@@ -294,6 +391,10 @@ public class UserService {
         user.setHashedPassword(hashedNewPassword);
 
         User updatedUser = userRepository.save(user);
+
+        // a stolen refresh token must not outlive the password it was obtained with
+        refreshTokenService.revokeAll(updatedUser.getAppId(), updatedUser.getEmail());
+
         return UserMapper.toResponseDto(updatedUser);
     }
 
@@ -313,26 +414,29 @@ public class UserService {
         user.setHashedPassword(hashedNewPassword);
 
         User updatedUser = userRepository.save(user);
+
+        refreshTokenService.revokeAll(updatedUser.getAppId(), updatedUser.getEmail());
+
         return UserMapper.toResponseDto(updatedUser);
     }
 
     /**
-     * Get user count for statistics
+     * Get user count for statistics, summed from the maintained per-app counters
      * @return Total number of users
      */
     @Transactional(readOnly = true)
     public long getUserCount() {
-        return userRepository.count();
+        return appUserCountRepository.sumCounts();
     }
 
     /**
-     * Get user count by appId
+     * Get user count by appId from the maintained counter
      * @param appId The appId ID
      * @return Number of users in the appId
      */
     @Transactional(readOnly = true)
     public long getUserCountByAppId(String appId) {
-        return userRepository.countByAppId(appId);
+        return appUserCountRepository.findCountByAppId(appId).orElse(0L);
     }
 
     /**
@@ -347,15 +451,11 @@ public class UserService {
     }
 
     /**
-     * Generate a unique authentication ID for new users
+     * Generate a unique authentication ID for new users, the generator guarantees
+     * uniqueness so no database lookup is needed
      * @return Unique auth ID
      */
     private String generateUniqueAuthId() {
-        String authId;
-        do {
-            authId = appIdGenerator.generate().replace("APP.", "user.");
-        } while (userRepository.findByAuthId(authId).isPresent());
-
-        return authId;
+        return appIdGenerator.generate().replace("APP.", "user.");
     }
 }
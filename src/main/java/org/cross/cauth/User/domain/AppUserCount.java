@@ -0,0 +1,22 @@
+package org.cross.cauth.User.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+/**
+ * Number of users registered in an app, maintained alongside user writes
+ */
+@Entity
+@Table(name = "app_user_counts")
+@Getter
+public class AppUserCount {
+    @Id
+    @Column(name = "app_id", length = 255)
+    private String appId;
+
+    @Column(name = "user_count", nullable = false)
+    private long userCount;
+
+    protected AppUserCount() {
+    }
+}
@@ -1,6 +1,8 @@
 package org.cross.cauth.User.domain;
 
 import jakarta.persistence.*;
+import org.cross.cauth.utils.UuidV7Generator;
+import org.hibernate.annotations.UuidGenerator;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -18,7 +20,8 @@ import java.util.UUID;
 @Setter
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedValue
+    @UuidGenerator(algorithm = UuidV7Generator.class)
     private UUID id;
 
     @Column(name = "auth_id", nullable = false, unique = true, length = 50)
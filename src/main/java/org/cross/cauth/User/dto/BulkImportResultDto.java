@@ -0,0 +1,24 @@
+package org.cross.cauth.User.dto;
+
+/**
+ * Outcome of one bulk import line
+ * @param line 1-based line number in the request
+ * @param email email of the line
+ * @param status CREATED, SKIPPED or FAILED
+ * @param authId auth id of the created user
+ * @param message reason for SKIPPED and FAILED lines
+ */
+public record BulkImportResultDto(long line, String email, String status, String authId, String message) {
+
+    public static BulkImportResultDto created(long line, String email, String authId){
+        return new BulkImportResultDto(line, email, "CREATED", authId, null);
+    }
+
+    public static BulkImportResultDto skipped(long line, String email, String message){
+        return new BulkImportResultDto(line, email, "SKIPPED", null, message);
+    }
+
+    public static BulkImportResultDto failed(long line, String email, String message){
+        return new BulkImportResultDto(line, email, "FAILED", null, message);
+    }
+}
@@ -0,0 +1,45 @@
+package org.cross.cauth.User.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One line of a bulk import, carries either a plain password or an existing hash
+ */
+@Getter
+@Setter
+public class BulkImportUserDto {
+    @NotBlank(message = "Email is required")
+    @Email(message = "Email must be valid")
+    @Size(max = 255, message = "Email must not exceed 255 characters")
+    private String email;
+
+    /**
+     * Plain text password - will be hashed before storage
+     */
+    @Size(min = 8, max = 128, message = "Password must be between 8 and 128 characters")
+    private String password;
+
+    /**
+     * Argon2 or BCrypt hash exported from another system, stored as-is
+     */
+    @Size(max = 255, message = "Hashed password must not exceed 255 characters")
+    private String hashedPassword;
+
+    @Size(max = 20, message = "Phone number must not exceed 20 characters")
+    private String phoneNumber;
+
+    private Boolean isEmailVerified;
+
+    @Override
+    public String toString() {
+        return "BulkImportUserDto{" +
+                "email='" + email + '\'' +
+                ", phoneNumber='" + phoneNumber + '\'' +
+                ", isEmailVerified=" + isEmailVerified +
+                '}';
+    }
+}
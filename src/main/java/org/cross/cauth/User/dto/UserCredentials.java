@@ -0,0 +1,13 @@
+package org.cross.cauth.User.dto;
+
+import java.util.UUID;
+
+/**
+ * Read-only projection of the columns a password check needs, loaded without a managed entity
+ * @param id user id
+ * @param authId user's auth id
+ * @param hashedPassword stored password hash
+ * @param isEmailVerified whether the user verified their email
+ */
+public record UserCredentials(UUID id, String authId, String hashedPassword, Boolean isEmailVerified) {
+}
@@ -25,6 +25,19 @@ public class UserMapper {
      * @return User entity
      */
     public static User toEntity(CreateUserRequestDto dto, Application application, String authId, String hashedPassword) {
+        return toEntity(dto, application.getAppId(), authId, hashedPassword);
+    }
+
+    /**
+     * Converts CreateUserRequestDto to User entity for an app known to exist.
+     *
+     * @param dto The create user request DTO
+     * @param appId The appId the user belongs to
+     * @param authId The generated unique auth ID
+     * @param hashedPassword The hashed password
+     * @return User entity
+     */
+    public static User toEntity(CreateUserRequestDto dto, String appId, String authId, String hashedPassword) {
         if (dto == null) {
             return null;
         }
@@ -32,7 +45,7 @@ public class UserMapper {
         User user = new User();
         user.setAuthId(authId);
         user.setEmail(dto.getEmail());
-        user.setAppId(application.getAppId());
+        user.setAppId(appId);
         user.setHashedPassword(hashedPassword);
         user.setPhoneNumber(dto.getPhoneNumber());
         user.setIsEmailVerified(false); // Default to false for new users
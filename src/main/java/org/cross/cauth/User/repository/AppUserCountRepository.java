@@ -0,0 +1,48 @@
+package org.cross.cauth.User.repository;
+
+import org.cross.cauth.User.domain.AppUserCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AppUserCountRepository extends JpaRepository<AppUserCount, String> {
+
+    @Query("select c.userCount from AppUserCount c where c.appId = :appId")
+    Optional<Long> findCountByAppId(@Param("appId") String appId);
+
+    @Query("select coalesce(sum(c.userCount), 0) from AppUserCount c")
+    long sumCounts();
+
+    /**
+     * Adds delta to the app's counter, creating it if missing. Must run in the transaction that
+     * wrote the users, the counter row stays locked until it commits.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            insert into app_user_counts (app_id, user_count) values (:appId, :delta)
+            on conflict (app_id) do update set user_count = app_user_counts.user_count + excluded.user_count
+            """, nativeQuery = true)
+    int increment(@Param("appId") String appId, @Param("delta") long delta);
+
+    /**
+     * Locks the app's counter row, user writes of the app wait until the caller's transaction ends
+     */
+    @Query(value = "select user_count from app_user_counts where app_id = :appId for update", nativeQuery = true)
+    Optional<Long> lockCount(@Param("appId") String appId);
+
+    @Transactional
+    @Modifying
+    @Query("update AppUserCount c set c.userCount = :count where c.appId = :appId")
+    int setCount(@Param("appId") String appId, @Param("count") long count);
+
+    @Query(value = "select app_id from app_user_counts union select app_id from applications", nativeQuery = true)
+    List<String> findAppIdsToReconcile();
+}
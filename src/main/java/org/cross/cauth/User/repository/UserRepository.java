@@ -1,12 +1,24 @@
 package org.cross.cauth.User.repository;
 
+import jakarta.persistence.QueryHint;
 import org.cross.cauth.User.domain.User;
+import org.cross.cauth.User.dto.UserCredentials;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
@@ -14,13 +26,67 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     Optional<User> findByEmail(String email);
 
-    Optional<User> findByEmailAndAppId(String email, String appId);
+    /**
+     * Emails are matched case-insensitively, the same way the (app_id, lower(email)) unique index compares them
+     */
+    @Query("select u from User u where u.appId = :appId and lower(u.email) = lower(:email)")
+    Optional<User> findByEmailAndAppId(@Param("email") String email, @Param("appId") String appId);
 
-    List<User> findByAppId(String appId);
+    /**
+     * Only the columns a login needs, nothing enters the persistence context
+     */
+    @Query("""
+            select new org.cross.cauth.User.dto.UserCredentials(u.id, u.authId, u.hashedPassword, u.isEmailVerified)
+            from User u where u.appId = :appId and lower(u.email) = lower(:email)
+            """)
+    Optional<UserCredentials> findCredentialsByEmailAndAppId(@Param("email") String email, @Param("appId") String appId);
 
-    List<User> findByIsEmailVerified(Boolean isEmailVerified);
+    /**
+     * Replaces the password hash only if it is still the one that was verified,
+     * so a rehash never overwrites a password changed in the meantime
+     * @return number of updated rows
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.hashedPassword = :newHash where u.id = :id and u.hashedPassword = :oldHash")
+    int replaceHashedPassword(@Param("id") UUID id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+    List<User> findByIdGreaterThanOrderByIdAsc(UUID after, Limit limit);
+
+    List<User> findByAppIdAndIdGreaterThanOrderByIdAsc(String appId, UUID after, Limit limit);
+
+    List<User> findByIsEmailVerifiedAndIdGreaterThanOrderByIdAsc(Boolean isEmailVerified, UUID after, Limit limit);
+
+    /**
+     * Forward-only cursor over an app's users, read in chunks of the fetch size.
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u from User u where u.appId = :appId order by u.id")
+    Stream<User> streamByAppId(@Param("appId") String appId);
+
+    @Query("select lower(u.email) from User u where u.appId = :appId and lower(u.email) in :emails")
+    Set<String> findExistingEmails(@Param("appId") String appId, @Param("emails") Collection<String> emails);
+
+    /**
+     * Inserts the user unless the email is already registered in the app, decided atomically by the
+     * (app_id, lower(email)) unique index. Any other constraint violation, e.g. a taken auth id, still fails.
+     * @return 1 if the row was inserted, 0 if the email is already registered in the app
+     */
+    @Modifying
+    @Query(value = """
+            insert into users (id, auth_id, email, app_id, hashed_password, is_email_verified, phone_number, created_at, updated_at, role)
+            values (:#{#user.id}, :#{#user.authId}, :#{#user.email}, :#{#user.appId}, :#{#user.hashedPassword},
+                    :#{#user.isEmailVerified}, :#{#user.phoneNumber}, :#{#user.createdAt}, :#{#user.updatedAt}, :#{#user.role})
+            on conflict (app_id, lower(email)) do nothing
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("user") User user);
 
     long countByAppId(String appId);
 
-    boolean existsByEmailAndAppId(String email, String appId);
+    @Query("select count(u) > 0 from User u where u.appId = :appId and lower(u.email) = lower(:email)")
+    boolean existsByEmailAndAppId(@Param("email") String email, @Param("appId") String appId);
 }
@@ -2,6 +2,7 @@ package org.cross.cauth.auth;
 
 
 import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.cross.cauth.ApiResponse;
@@ -65,12 +66,13 @@ public class AuthController {
     @PostMapping("/login")
     public ResponseEntity<ApiResponse<OrgPublicDto>> loginOrg(
             @RequestBody LoginOrgDto dto,
+            @NonNull HttpServletRequest request,
             @NonNull HttpServletResponse response
             ){
 
         logger.info("loginOrg : login attempt by org {}", dto);
 
-        String token = authService.login(dto);
+        String token = authService.login(dto, request.getRemoteAddr());
 
         Cookie cookie = new Cookie("authToken", token);
         cookie.setMaxAge(60*60*12);
@@ -7,6 +7,7 @@ import org.cross.cauth.Organization.OrganizationService;
 import org.cross.cauth.Organization.dto.CreateOrgDto;
 import org.cross.cauth.Organization.dto.LoginOrgDto;
 import org.cross.cauth.Organization.dto.OrgPublicDto;
+import org.cross.cauth.utils.LoginThrottleService;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -14,9 +15,10 @@ import org.springframework.stereotype.Service;
 public class AuthService {
     private final OrganizationService organizationService;
     private final JwtService jwtService;
+    private final LoginThrottleService loginThrottleService;
 
     public boolean verifyOrganization(String email, String password){
-        if(organizationService.doExist(email) && organizationService.verifyPassword(email, password)){
+        if(organizationService.verifyPassword(email, password)){
             return true;
         }
 
@@ -29,11 +31,14 @@ public class AuthService {
 
 
 
-    public String login(LoginOrgDto dto){
+    public String login(LoginOrgDto dto, String clientIp){
         String email = dto.getEmail();
         String password = dto.getPassword();
 
+        loginThrottleService.checkOrganizationLogin(email, clientIp);
+
         if(verifyOrganization(email, password)){
+            loginThrottleService.recordSuccessfulOrganizationLogin(email);
             return generateAuthenticationToken(email);
         }
 
@@ -0,0 +1,30 @@
+package org.cross.cauth.config;
+
+import org.cross.cauth.utils.CredentialSecurityManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Lets Spring Security authenticate through the same {@link CredentialSecurityManager} the services use
+ */
+public class CredentialPasswordEncoder implements PasswordEncoder {
+    private final CredentialSecurityManager credentialSecurityManager;
+
+    public CredentialPasswordEncoder(CredentialSecurityManager credentialSecurityManager) {
+        this.credentialSecurityManager = credentialSecurityManager;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return credentialSecurityManager.encode(rawPassword.toString());
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return credentialSecurityManager.isValid(rawPassword.toString(), encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return credentialSecurityManager.needsRehash(encodedPassword);
+    }
+}
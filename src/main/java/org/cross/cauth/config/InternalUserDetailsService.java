@@ -1,8 +1,8 @@
 package org.cross.cauth.config;
 
 import lombok.RequiredArgsConstructor;
-import org.cross.cauth.Organization.domain.Organization;
-import org.cross.cauth.Organization.repository.OrganizationRepository;
+import org.cross.cauth.Organization.OrganizationLookupService;
+import org.cross.cauth.Organization.dto.OrgSnapshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -16,20 +16,20 @@ import java.util.stream.Stream;
 @Service
 @RequiredArgsConstructor
 public class InternalUserDetailsService implements UserDetailsService {
-    private final OrganizationRepository organizationRepository;
+    private final OrganizationLookupService organizationLookupService;
 
     Logger logger = LoggerFactory.getLogger(InternalUserDetailsService.class);
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        logger.info("loadUserByUsername : entered into InternalUserDetailsService, attempting to fetching user from database");
+        logger.info("loadUserByUsername : entered into InternalUserDetailsService, attempting to fetching user");
 
-        Organization user = organizationRepository.findByEmail(username)
+        OrgSnapshot user = organizationLookupService.find(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Invalid username"));
 
         return new org.springframework.security.core.userdetails.User(
-                user.getEmail(),
-                user.getHashedPassword(),
+                user.email(),
+                user.hashedPassword(),
                 Stream.of("ROLE_ORGANIZATION")
                         .map(SimpleGrantedAuthority::new)
                         .toList()
@@ -6,11 +6,15 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.cross.cauth.Jwt.JwtService;
+import org.cross.cauth.Jwt.VerifiedToken;
+import org.cross.cauth.Organization.OrganizationStatusService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -18,12 +22,22 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final OrganizationStatusService organizationStatusService;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    /**
+     * When enabled the principal is built from the verified <code>role</code> claim,
+     * and only the cached organization status is checked instead of loading the organization.
+     */
+    @Value("${app.auth.stateless:false}")
+    private boolean statelessAuthentication;
 
     Logger logger = LoggerFactory.getLogger(JwtAuthFilter.class);
 
@@ -55,31 +69,36 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         logger.info("doFilterInternal : extracted jwt token from auth header");
 
-        logger.info("doFilterInternal : attempting to extract username from token");
-        String username = jwtService.extractSubject(jwt);
+        if(SecurityContextHolder.getContext().getAuthentication() == null){
+            Optional<UserDetails> cachedPrincipal = verifiedTokenCache.get(jwt);
 
-        if(username != null && SecurityContextHolder.getContext().getAuthentication() == null){
-            logger.info("doFilterInternal : extracted username from token username : {}", username);
+            if(cachedPrincipal.isPresent()){
+                authenticate(cachedPrincipal.get(), request);
+                logger.info("doFilterInternal : user authenticated from verified token cache");
 
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                filterChain.doFilter(request, response);
+                return;
+            }
+        }
 
-            logger.info("doFilterInternal : got user details object user {}", userDetails);
+        logger.info("doFilterInternal : attempting to verify token");
+        Optional<VerifiedToken> verifiedToken = jwtService.verify(jwt);
 
-            if(jwtService.isValid(jwt, userDetails)){
-                logger.info("doFilterInternal : jwt validated");
+        if(verifiedToken.isEmpty()){
+            logger.info("doFilterInternal : user authentication failed due to invalid or expired jwt");
+        } else if(verifiedToken.get().subject() != null && SecurityContextHolder.getContext().getAuthentication() == null){
+            String username = verifiedToken.get().subject();
+            logger.info("doFilterInternal : jwt validated, extracted username from token username : {}", username);
 
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
+            Optional<UserDetails> userDetails = resolveUserDetails(verifiedToken.get());
 
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            if(userDetails.isPresent()){
+                logger.info("doFilterInternal : got user details object user {}", userDetails.get());
 
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-                logger.info("doFilterInternal : user authentication completed user {}", authToken);
+                authenticate(userDetails.get(), request);
+                verifiedTokenCache.put(jwt, userDetails.get(), verifiedToken.get().expiresAt());
             } else{
-                logger.info("doFilterInternal : user authentication failed due to  invalid or expired jwt");
+                logger.info("doFilterInternal : user authentication failed due to missing role claim or inactive organization");
             }
         }else{
             logger.info("doFilterInternal : user authentication failed due to null subject or SecurityContextHolder already holds authentication");
@@ -88,4 +107,34 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
         return;
     }
+
+    private void authenticate(UserDetails userDetails, HttpServletRequest request){
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+        );
+
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+        logger.info("doFilterInternal : user authentication completed user {}", authToken);
+    }
+
+    private Optional<UserDetails> resolveUserDetails(VerifiedToken verifiedToken){
+        if(!statelessAuthentication){
+            return Optional.of(userDetailsService.loadUserByUsername(verifiedToken.subject()));
+        }
+
+        if(verifiedToken.role() == null || !organizationStatusService.isActive(verifiedToken.subject())){
+            return Optional.empty();
+        }
+
+        return Optional.of(
+                User.withUsername(verifiedToken.subject())
+                        .password("")
+                        .authorities(verifiedToken.role())
+                        .build()
+        );
+    }
 }
@@ -1,6 +1,7 @@
 package org.cross.cauth.config;
 
 import lombok.RequiredArgsConstructor;
+import org.cross.cauth.utils.CredentialSecurityManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -9,7 +10,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -19,12 +19,11 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
     private final JwtAuthFilter jwtAuthFilter;
     private final UserDetailsService userDetailsService;
+    private final CredentialSecurityManager credentialSecurityManager;
 
     @Bean
     public PasswordEncoder passwordEncoder(){
-        return new Argon2PasswordEncoder(
-                12, 32, 65336, 1, 3
-        );
+        return new CredentialPasswordEncoder(credentialSecurityManager);
     }
 
     @Bean
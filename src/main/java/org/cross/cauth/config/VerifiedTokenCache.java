@@ -0,0 +1,111 @@
+package org.cross.cauth.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Cache of already verified bearer tokens, keyed by the SHA-256 digest of the token
+ * so raw tokens are never held in memory. An entry lives until the token expires
+ * or the configured ttl passes, whichever comes first.
+ * <p>
+ * The ttl is capped at the organization status cache ttl, a disabled organization must not stay
+ * authenticated through this cache longer than through a fresh status lookup. Principals are
+ * held without their credentials.
+ */
+@Component
+public class VerifiedTokenCache {
+    private final Cache<String, CachedPrincipal> verifiedTokens;
+    private final Duration maxTtl;
+
+    record CachedPrincipal(UserDetails principal, Instant expiresAt) {}
+
+    public VerifiedTokenCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.token-cache.max-size:50000}") long maxSize,
+            @Value("${app.auth.token-cache.ttl-seconds:30}") long ttlSeconds,
+            @Value("${app.auth.org-status-cache.ttl-seconds:30}") long orgStatusTtlSeconds
+    ) {
+        this.maxTtl = Duration.ofSeconds(Math.min(ttlSeconds, orgStatusTtlSeconds));
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, CachedPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedPrincipal value, long currentTime) {
+                        return timeToLive(value).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+                        return timeToLive(value).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "verifiedTokens");
+        Gauge.builder("auth.token.cache.hit.ratio", verifiedTokens, cache -> cache.stats().hitRate())
+                .description("Share of bearer token lookups answered without signature verification")
+                .register(meterRegistry);
+    }
+
+    public Optional<UserDetails> get(String token){
+        CachedPrincipal cached = verifiedTokens.getIfPresent(digest(token));
+
+        if(cached == null || !cached.expiresAt().isAfter(Instant.now())){
+            return Optional.empty();
+        }
+
+        return Optional.of(cached.principal());
+    }
+
+    public void put(String token, UserDetails principal, Instant expiresAt){
+        if(expiresAt == null || !expiresAt.isAfter(Instant.now())){
+            return;
+        }
+
+        // the password hash of a loaded principal is not needed after authentication
+        UserDetails withoutCredentials = User.withUserDetails(principal).password("").build();
+
+        verifiedTokens.put(digest(token), new CachedPrincipal(withoutCredentials, expiresAt));
+    }
+
+    private Duration timeToLive(CachedPrincipal value){
+        Duration untilExpiry = Duration.between(Instant.now(), value.expiresAt());
+
+        if(untilExpiry.isNegative()){
+            return Duration.ZERO;
+        }
+
+        return untilExpiry.compareTo(maxTtl) < 0 ? untilExpiry : maxTtl;
+    }
+
+    private static String digest(String token){
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
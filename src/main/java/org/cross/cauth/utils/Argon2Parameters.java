@@ -0,0 +1,155 @@
+package org.cross.cauth.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.IntConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Argon2 cost parameters shared by every hashing backend, so switching backends
+ * changes the engine but not the security level of stored hashes.
+ */
+@Component
+public class Argon2Parameters {
+    static final int MEMORY_COST = 65336;
+
+    // Parameters are stored in the hash itself, e.g. $argon2i$v=19$m=65336,t=12,p=1$salt$hash
+    private static final Pattern HASH_PARAMETERS = Pattern.compile("\\$m=(\\d+),t=(\\d+),p=(\\d+)\\$");
+
+    Logger logger = LoggerFactory.getLogger(Argon2Parameters.class);
+
+    @Value("${app.argon2.calibrate:true}")
+    private boolean calibrate;
+
+    @Value("${app.argon2.target-latency-ms:250}")
+    private long targetLatencyMs;
+
+    @Value("${app.argon2.iterations:12}")
+    private int defaultIterations;
+
+    @Value("${app.argon2.min-iterations:3}")
+    private int minIterations;
+
+    @Value("${app.argon2.max-iterations:24}")
+    private int maxIterations;
+
+    @Value("${app.argon2.parallelism:1}")
+    private int PARALLELISM;
+
+    @Value("${app.argon2.max-parallelism:8}")
+    private int maxParallelism;
+
+    @Value("${app.hashing.memory-budget-mb:512}")
+    private long memoryBudgetMb;
+
+    public int getMemoryCost(){
+        return MEMORY_COST;
+    }
+
+    public int getParallelism(){
+        return PARALLELISM;
+    }
+
+    public int getDefaultIterations(){
+        return defaultIterations;
+    }
+
+    /**
+     * Picks the iteration count that makes one hash take about the target latency on this machine.
+     * Memory cost stays fixed because the hashing pool is sized from it.
+     * @param backend backend name, for logging
+     * @param hashAtIterations computes one hash with the given iteration count
+     * @return iterations to use
+     */
+    int calibrate(String backend, IntConsumer hashAtIterations){
+        if(!calibrate){
+            logger.info("calibrate : calibration disabled, {} backend uses {} iterations", backend, defaultIterations);
+            return defaultIterations;
+        }
+
+        // first run warms up the library and page tables
+        hashAtIterations.accept(minIterations);
+
+        long start = System.nanoTime();
+        hashAtIterations.accept(minIterations);
+        double nanosPerIteration = (double) (System.nanoTime() - start) / minIterations;
+
+        int calibrated = (int) Math.round(targetLatencyMs * 1_000_000 / nanosPerIteration);
+        int iterations = Math.max(minIterations, Math.min(maxIterations, calibrated));
+
+        logger.info("calibrate : {} backend uses {} iterations at m={} p={} for a {} ms target ({} ms per iteration)",
+                backend, iterations, MEMORY_COST, PARALLELISM, targetLatencyMs, Math.round(nanosPerIteration / 1_000_000));
+
+        return iterations;
+    }
+
+    /**
+     * @param hashedText stored Argon2 hash
+     * @return memory cost in KiB the hash needs to be verified, the current cost if it cannot be read
+     */
+    int memoryCostOf(String hashedText){
+        Matcher matcher = hashedText != null ? HASH_PARAMETERS.matcher(hashedText) : null;
+
+        if(matcher == null || !matcher.find()){
+            return MEMORY_COST;
+        }
+
+        try {
+            return Integer.parseInt(matcher.group(1));
+        } catch (NumberFormatException e) {
+            return MEMORY_COST;
+        }
+    }
+
+    /**
+     * Checks parameters of a hash that did not come from this service, verifying it allocates
+     * <code>m</code> KiB and runs <code>t</code> passes, so both must stay within what the hashing pool allows
+     * @param hashedText Argon2 hash
+     * @return <code>true</code> if m fits the hashing memory budget, t is at most the maximum iterations
+     * and p is between 1 and the maximum parallelism
+     */
+    boolean isWithinLimits(String hashedText){
+        Matcher matcher = hashedText != null ? HASH_PARAMETERS.matcher(hashedText) : null;
+
+        if(matcher == null || !matcher.find()){
+            return false;
+        }
+
+        try {
+            long memory = Long.parseLong(matcher.group(1));
+            long iterations = Long.parseLong(matcher.group(2));
+            long parallelism = Long.parseLong(matcher.group(3));
+
+            return parallelism >= 1 && parallelism <= maxParallelism
+                    && iterations >= 1 && iterations <= maxIterations
+                    // Argon2 needs at least 8 KiB per lane
+                    && memory >= 8 * parallelism && memory <= Math.max(MEMORY_COST, memoryBudgetMb * 1024);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param hashedText stored Argon2 hash
+     * @param iterations iterations the backend currently hashes with
+     * @return <code>true</code> if the hash uses other memory/parallelism or fewer iterations
+     */
+    boolean needsRehash(String hashedText, int iterations){
+        Matcher matcher = hashedText != null ? HASH_PARAMETERS.matcher(hashedText) : null;
+
+        if(matcher == null || !matcher.find()){
+            return false;
+        }
+
+        int memory = Integer.parseInt(matcher.group(1));
+        int hashIterations = Integer.parseInt(matcher.group(2));
+        int parallelism = Integer.parseInt(matcher.group(3));
+
+        // only rehash upwards in iterations so restarts with slightly different calibration do not churn
+        return memory != MEMORY_COST || parallelism != PARALLELISM || hashIterations < iterations;
+    }
+}
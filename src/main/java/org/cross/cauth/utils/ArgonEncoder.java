@@ -6,23 +6,60 @@ import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
 
+/**
+ * Native Argon2i backend on top of argon2-jvm
+ */
 @Component
-public class ArgonEncoder implements CredentialSecurityManager {
+public class ArgonEncoder implements CredentialHasher {
+    static final String NAME = "native";
+
+    private static final String HASH_PREFIX = "$argon2i$";
+
+    private final HashingExecutor hashingExecutor;
+    private final Argon2Parameters parameters;
 
     Argon2 argon2 = Argon2Factory.create();
 
-    private final int ITERATIONS = 12;
-    private final int PARALLELISM = 1;
-    private final int MEMORY_COST = 65336;
+    private volatile int ITERATIONS;
+
+    public ArgonEncoder(HashingExecutor hashingExecutor, Argon2Parameters parameters) {
+        this.hashingExecutor = hashingExecutor;
+        this.parameters = parameters;
+        this.ITERATIONS = parameters.getDefaultIterations();
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public String hashPrefix() {
+        return HASH_PREFIX;
+    }
+
+    @Override
+    public boolean supports(String hashedText) {
+        return hashedText != null && hashedText.startsWith(HASH_PREFIX);
+    }
+
+    @Override
+    public void calibrate() {
+        char[] sample = "calibration-sample".toCharArray();
 
+        ITERATIONS = parameters.calibrate(NAME, iterations -> argon2.hash(
+                iterations, parameters.getMemoryCost(), parameters.getParallelism(), sample
+        ));
+    }
 
     @Override
     public String encode(String plainText) {
         char[] password = plainText != null ? plainText.toCharArray() : new char[0];
+        int iterations = ITERATIONS;
         try{
-            return argon2.hash(
-                    ITERATIONS, MEMORY_COST, PARALLELISM, password
-            );
+            return hashingExecutor.execute(() -> argon2.hash(
+                    iterations, parameters.getMemoryCost(), parameters.getParallelism(), password
+            ));
         } finally {
             Arrays.fill(password, '\0');
         }
@@ -30,7 +67,17 @@ public class ArgonEncoder implements CredentialSecurityManager {
 
     @Override
     public boolean isValid(String plainText, String hashedText) {
-        return argon2.verify(hashedText, plainText);
+        return hashingExecutor.execute(parameters.memoryCostOf(hashedText), () -> argon2.verify(hashedText, plainText));
+    }
+
+    @Override
+    public boolean needsRehash(String hashedText) {
+        return parameters.needsRehash(hashedText, ITERATIONS);
+    }
+
+    @Override
+    public boolean isWithinCostLimits(String hashedText) {
+        return parameters.isWithinLimits(hashedText);
     }
 
 }
@@ -0,0 +1,90 @@
+package org.cross.cauth.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt backend, mainly so hashes imported from other systems keep working.
+ * Unless it is the active backend they are upgraded on the next successful login.
+ */
+@Component
+public class BcryptEncoder implements CredentialHasher {
+    static final String NAME = "bcrypt";
+
+    // bcrypt works in a fixed 4 KiB state
+    private static final int MEMORY_COST_KB = 4;
+
+    // cost is the two digit log2 round count after the version, e.g. $2a$12$...
+    private static final Pattern COST = Pattern.compile("^\\$2[aby]\\$(\\d{2})\\$");
+    private static final int MIN_STRENGTH = 4;
+
+    private final HashingExecutor hashingExecutor;
+    private final BCryptPasswordEncoder encoder;
+    private final int maxStrength;
+
+    public BcryptEncoder(
+            HashingExecutor hashingExecutor,
+            @Value("${app.bcrypt.strength:12}") int strength,
+            @Value("${app.bcrypt.max-strength:14}") int maxStrength
+    ) {
+        this.hashingExecutor = hashingExecutor;
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.maxStrength = maxStrength;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public String hashPrefix() {
+        return "$2a$";
+    }
+
+    @Override
+    public boolean supports(String hashedText) {
+        return hashedText != null
+                && (hashedText.startsWith("$2a$") || hashedText.startsWith("$2b$") || hashedText.startsWith("$2y$"));
+    }
+
+    @Override
+    public void calibrate() {
+        // strength is configured explicitly
+    }
+
+    @Override
+    public String encode(String plainText) {
+        return hashingExecutor.execute(MEMORY_COST_KB, () -> encoder.encode(plainText != null ? plainText : ""));
+    }
+
+    @Override
+    public boolean isValid(String plainText, String hashedText) {
+        return hashingExecutor.execute(MEMORY_COST_KB, () -> encoder.matches(plainText, hashedText));
+    }
+
+    @Override
+    public boolean needsRehash(String hashedText) {
+        return encoder.upgradeEncoding(hashedText);
+    }
+
+    /**
+     * Every step of the cost doubles verification time, so imported hashes are capped at <code>app.bcrypt.max-strength</code>
+     */
+    @Override
+    public boolean isWithinCostLimits(String hashedText) {
+        Matcher matcher = hashedText != null ? COST.matcher(hashedText) : null;
+
+        if(matcher == null || !matcher.find()){
+            return false;
+        }
+
+        int cost = Integer.parseInt(matcher.group(1));
+
+        return cost >= MIN_STRENGTH && cost <= maxStrength;
+    }
+}
@@ -0,0 +1,21 @@
+package org.cross.cauth.utils;
+
+/**
+ * A hashing engine registered with {@link CredentialSecurityRegistry}
+ */
+public interface CredentialHasher extends CredentialSecurityManager {
+    /**
+     * @return backend name selected through <code>app.credentials.backend</code>
+     */
+    String name();
+
+    /**
+     * @return prefix of the hashes {@link #encode} produces
+     */
+    String hashPrefix();
+
+    /**
+     * Tunes cost parameters to this machine, only the active backend is calibrated
+     */
+    void calibrate();
+}
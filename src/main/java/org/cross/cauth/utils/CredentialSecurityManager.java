@@ -3,4 +3,28 @@ package org.cross.cauth.utils;
 public interface CredentialSecurityManager {
     String encode(String plainText);
     boolean isValid(String plainText, String hashedText);
+
+    /**
+     * @param hashedText stored hash
+     * @return <code>true</code> if the hash was produced with weaker or different parameters than {@link #encode} uses now
+     */
+    default boolean needsRehash(String hashedText){
+        return false;
+    }
+
+    /**
+     * @param hashedText stored hash
+     * @return <code>true</code> if {@link #isValid} can verify a hash in this format
+     */
+    default boolean supports(String hashedText){
+        return hashedText != null;
+    }
+
+    /**
+     * @param hashedText hash supplied from outside, e.g. by a bulk import
+     * @return <code>true</code> if verifying the hash stays within the configured cost limits
+     */
+    default boolean isWithinCostLimits(String hashedText){
+        return true;
+    }
 }
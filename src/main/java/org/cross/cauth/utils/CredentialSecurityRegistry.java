@@ -0,0 +1,97 @@
+package org.cross.cauth.utils;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Single entry point for password hashing. New hashes come from the backend selected with
+ * <code>app.credentials.backend</code>, stored hashes are verified by whichever backend
+ * recognises their self-describing prefix, and hashes from another backend are reported
+ * as needing a rehash so they migrate on the next successful login.
+ */
+@Component
+@Primary
+public class CredentialSecurityRegistry implements CredentialSecurityManager {
+    private final List<CredentialHasher> hashers;
+    private final CredentialHasher active;
+
+    Logger logger = LoggerFactory.getLogger(CredentialSecurityRegistry.class);
+
+    public CredentialSecurityRegistry(
+            List<CredentialHasher> hashers,
+            @Value("${app.credentials.backend:native}") String backend
+    ) {
+        Map<String, CredentialHasher> byName = hashers.stream()
+                .collect(Collectors.toMap(CredentialHasher::name, Function.identity()));
+
+        this.hashers = hashers;
+        this.active = byName.get(backend);
+
+        if(active == null){
+            throw new IllegalStateException("Unknown app.credentials.backend '" + backend + "', available: " + byName.keySet());
+        }
+    }
+
+    @PostConstruct
+    void init(){
+        active.calibrate();
+        logger.info("init : hashing new credentials with the {} backend", active.name());
+    }
+
+    @Override
+    public String encode(String plainText) {
+        return active.encode(plainText);
+    }
+
+    @Override
+    public boolean isValid(String plainText, String hashedText) {
+        if(hashedText == null){
+            return false;
+        }
+
+        if(active.supports(hashedText)){
+            return active.isValid(plainText, hashedText);
+        }
+
+        for(CredentialHasher hasher : hashers){
+            if(hasher.supports(hashedText)){
+                return hasher.isValid(plainText, hashedText);
+            }
+        }
+
+        logger.warn("isValid : no hashing backend recognises the stored hash format");
+        return false;
+    }
+
+    @Override
+    public boolean supports(String hashedText) {
+        return hashers.stream().anyMatch(hasher -> hasher.supports(hashedText));
+    }
+
+    @Override
+    public boolean isWithinCostLimits(String hashedText) {
+        return hashers.stream()
+                .filter(hasher -> hasher.supports(hashedText))
+                .findFirst()
+                .map(hasher -> hasher.isWithinCostLimits(hashedText))
+                .orElse(false);
+    }
+
+    @Override
+    public boolean needsRehash(String hashedText) {
+        if(hashedText == null){
+            return false;
+        }
+
+        return !hashedText.startsWith(active.hashPrefix()) || active.needsRehash(hashedText);
+    }
+}
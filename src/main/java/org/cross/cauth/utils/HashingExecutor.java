@@ -0,0 +1,177 @@
+package org.cross.cauth.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.cross.cauth.Exception.HashingCapacityExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dedicated pool for memory-hard password hashing.
+ * Pool size is derived from a memory budget so concurrent Argon2 work cannot exhaust
+ * native memory. Overload turns into a 503 once no budget frees up within the retry-after
+ * period or the bounded queue is full, instead of stalling request threads of unrelated endpoints.
+ */
+@Component
+public class HashingExecutor {
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+
+    /**
+     * Memory budget in KiB, each task holds permits equal to its Argon2 memory cost from submission until it finishes.
+     * The pool size already fits the default cost, this also covers verifying stored hashes
+     * made with a larger cost, which would otherwise push native memory past the budget.
+     * Permits are taken by the caller before the task is queued, so a worker never parks waiting for budget
+     * while runnable tasks sit behind it in the queue.
+     */
+    private final Semaphore memoryBudget;
+    private final int memoryBudgetKb;
+
+    private final Timer waitTimer;
+    private final Timer hashTimer;
+    private final Counter rejectedCounter;
+
+    Logger logger = LoggerFactory.getLogger(HashingExecutor.class);
+
+    public HashingExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${app.hashing.memory-budget-mb:512}") long memoryBudgetMb,
+            @Value("${app.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${app.hashing.retry-after-seconds:1}") long retryAfterSeconds
+    ) {
+        this.memoryBudgetKb = (int) Math.max(Argon2Parameters.MEMORY_COST, memoryBudgetMb * 1024);
+        this.memoryBudget = new Semaphore(memoryBudgetKb, true);
+
+        int byMemory = Math.max(1, memoryBudgetKb / Argon2Parameters.MEMORY_COST);
+        int threads = Math.min(byMemory, Runtime.getRuntime().availableProcessors());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                // deliberately platform threads: a native Argon2 call pins a virtual thread to its
+                // carrier for the whole hash, which would starve request handling on virtual threads
+                runnable -> {
+                    Thread thread = new Thread(runnable, "credential-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        this.waitTimer = Timer.builder("credential.hashing.wait")
+                .description("Time hashing tasks spend queued before a worker picks them up")
+                .register(meterRegistry);
+        this.hashTimer = Timer.builder("credential.hashing.duration")
+                .description("Time spent computing or verifying a password hash")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("credential.hashing.rejected")
+                .description("Hashing tasks rejected because no memory budget or queue slot freed up in time")
+                .register(meterRegistry);
+        Gauge.builder("credential.hashing.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Hashing tasks waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("credential.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        Gauge.builder("credential.hashing.memory.reserved", memoryBudget, budget -> (memoryBudgetKb - budget.availablePermits()) * 1024.0)
+                .description("Argon2 working memory held by running hashing tasks")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        logger.info("HashingExecutor : started with {} workers and queue capacity {}", threads, queueCapacity);
+    }
+
+    /**
+     * Runs the hashing task on the dedicated pool and waits for its result
+     * @param task hash or verify call
+     * @return task result
+     * @throws HashingCapacityExceededException if the queue is full
+     */
+    public <T> T execute(Callable<T> task){
+        return execute(Argon2Parameters.MEMORY_COST, task);
+    }
+
+    /**
+     * Runs the hashing task once its memory cost fits in the budget, the caller waits for budget
+     * at most as long as it would be told to retry after
+     * @param memoryKb Argon2 memory cost of the task in KiB
+     * @param task hash or verify call
+     * @return task result
+     * @throws HashingCapacityExceededException if no budget frees up in time or the queue is full
+     */
+    public <T> T execute(int memoryKb, Callable<T> task){
+        // a task larger than the whole budget runs alone instead of never running
+        int permits = Math.max(1, Math.min(memoryKb, memoryBudgetKb));
+        long enqueuedAt = System.nanoTime();
+
+        try {
+            if(!memoryBudget.tryAcquire(permits, retryAfterSeconds, TimeUnit.SECONDS)){
+                throw rejected();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        }
+
+        // whoever claims first releases the permits, the worker once it starts or the caller if the task never starts
+        AtomicBoolean claimed = new AtomicBoolean();
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                if(!claimed.compareAndSet(false, true)){
+                    return null;
+                }
+
+                try {
+                    waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                    return hashTimer.recordCallable(task);
+                } finally {
+                    memoryBudget.release(permits);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            memoryBudget.release(permits);
+            throw rejected();
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            if(claimed.compareAndSet(false, true)){
+                memoryBudget.release(permits);
+            }
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException runtimeException){
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private HashingCapacityExceededException rejected(){
+        rejectedCounter.increment();
+        return new HashingCapacityExceededException("Server is busy, please retry shortly", retryAfterSeconds);
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        executor.shutdown();
+    }
+}
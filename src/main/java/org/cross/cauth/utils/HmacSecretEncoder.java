@@ -0,0 +1,79 @@
+package org.cross.cauth.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Keyed hash for high-entropy, machine-generated secrets such as app secrets.
+ * A memory-hard hash adds nothing when the secret itself cannot be guessed, so these are
+ * stored as a peppered HMAC-SHA256 and checked in microseconds with a constant-time compare.
+ * Not suitable for human passwords, use {@link ArgonEncoder} for those.
+ */
+@Component("appSecretEncoder")
+public class HmacSecretEncoder implements CredentialSecurityManager {
+    static final String PREFIX = "$hmac-sha256$v1$";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec pepper;
+
+    public HmacSecretEncoder(@Value("${app.secret-pepper}") String pepper) {
+        if(pepper == null || pepper.isBlank()){
+            throw new IllegalStateException("app.secret-pepper must be configured");
+        }
+
+        this.pepper = new SecretKeySpec(pepper.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    @Override
+    public String encode(String plainText) {
+        return PREFIX + Base64.getEncoder().withoutPadding().encodeToString(mac(plainText));
+    }
+
+    @Override
+    public boolean isValid(String plainText, String hashedText) {
+        if(plainText == null || hashedText == null || !hashedText.startsWith(PREFIX)){
+            return false;
+        }
+
+        byte[] expected;
+        try {
+            expected = Base64.getDecoder().decode(hashedText.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+
+        return MessageDigest.isEqual(expected, mac(plainText));
+    }
+
+    /**
+     * Anything not in the current versioned format, e.g. legacy Argon2 app secrets, should be migrated
+     */
+    @Override
+    public boolean needsRehash(String hashedText) {
+        return hashedText == null || !hashedText.startsWith(PREFIX);
+    }
+
+    @Override
+    public boolean supports(String hashedText) {
+        return hashedText != null && hashedText.startsWith(PREFIX);
+    }
+
+    private byte[] mac(String plainText){
+        try {
+            // Mac is not thread-safe, and a fresh instance is cheap next to the request itself
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(pepper);
+            return mac.doFinal((plainText != null ? plainText : "").getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
@@ -1,52 +1,111 @@
 package org.cross.cauth.utils;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.SecureRandom;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.stream.IntStream;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 public class InBuiltIdGenerator implements UniqueIdGenerator {
-    private static final SecureRandom secureRandom = new SecureRandom();
     private static final String PREFIX = "APP.";
-    private static final int SUFFIX_LENGTH = 8;
     private static final String CHARACTERS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
 
+    // Crockford base32, lexical order of the encoded ids follows numeric order
+    private static final char[] BASE32 = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13;
+
+    private static final long EPOCH = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+
+    /**
+     * Last issued timestamp and sequence packed as <code>millis &lt;&lt; SEQUENCE_BITS | sequence</code>
+     */
+    private final AtomicLong lastState = new AtomicLong();
+
+    Logger logger = LoggerFactory.getLogger(InBuiltIdGenerator.class);
+
+    /**
+     * @param nodeId id of this instance, must differ between all running instances since ids are
+     *               only unique per node and nothing checks them against the database
+     */
+    public InBuiltIdGenerator(@Value("${app.id-generator.node-id}") long nodeId) {
+        if(nodeId < 0 || nodeId > MAX_NODE_ID){
+            throw new IllegalStateException("app.id-generator.node-id must be set to a value between 0 and " + MAX_NODE_ID
+                    + " that no other running instance uses, got " + nodeId);
+        }
+
+        logger.info("InBuiltIdGenerator : generating ids as node {}", nodeId);
+        this.nodeId = nodeId;
+    }
+
     /**
-     * Generate app ID with alphanumeric suffix for enhanced security
-     * Uses A-Z and 0-9 characters providing 36^8 possible combinations
+     * Generate a k-sortable app ID, e.g. <code>APP.0C8Y4ZK3M0A01</code>.
+     * The 64 bit value is Snowflake style: 42 bits of milliseconds since 2025, 10 bits of node id and
+     * a 12 bit sequence, so ids are unique across nodes with distinct node ids without asking the database.
      */
     @Override
     public String generate(){
-        StringBuilder sb = new StringBuilder();
+        long id = nextId();
 
-        sb.append(PREFIX);
+        char[] encoded = new char[PREFIX.length() + ENCODED_LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), encoded, 0);
 
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        sb.append(timestamp);
-        sb.append(".");
-
-        // Generate secure random alphanumeric suffix
-        for (int i = 0; i < SUFFIX_LENGTH; i++) {
-            int index = secureRandom.nextInt(CHARACTERS.length());
-            sb.append(CHARACTERS.charAt(index));
+        for (int i = encoded.length - 1; i >= PREFIX.length(); i--) {
+            encoded[i] = BASE32[(int) (id & 31)];
+            id >>>= 5;
         }
 
-        return sb.toString();
+        return new String(encoded);
     }
 
     @Override
     public String generateSLCode(int length) {
+        SecureRandom secureRandom = SecureRandoms.current();
         StringBuilder code = new StringBuilder(length);
 
-        for (int i = 0; i < length; i++) {
-            int idx = secureRandom.nextInt(CHARACTERS.length());
-            code.append(CHARACTERS.charAt(idx));
+        // one bulk read per round instead of a synchronized call per character,
+        // values outside the alphabet are dropped so every character stays uniform
+        byte[] bytes = new byte[length + (length >> 2) + 4];
+        while (code.length() < length) {
+            secureRandom.nextBytes(bytes);
+
+            for (int i = 0; i < bytes.length && code.length() < length; i++) {
+                int idx = bytes[i] & 0x3F;
+                if (idx < CHARACTERS.length()) {
+                    code.append(CHARACTERS.charAt(idx));
+                }
+            }
         }
 
         return code.toString();
     }
 
+    private long nextId(){
+        while (true) {
+            long previous = lastState.get();
+            long now = System.currentTimeMillis() - EPOCH;
+
+            // a clock that went back, or a sequence that ran out, keeps counting from the last
+            // issued value; the carry out of the sequence moves to the next millisecond
+            long next = now > (previous >>> SEQUENCE_BITS)
+                    ? now << SEQUENCE_BITS
+                    : previous + 1;
+
+            if (lastState.compareAndSet(previous, next)) {
+                return ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS))
+                        | (nodeId << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
 }
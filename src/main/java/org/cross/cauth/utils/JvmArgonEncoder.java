@@ -0,0 +1,84 @@
+package org.cross.cauth.utils;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pure Java Argon2id backend on top of Spring Security and Bouncy Castle,
+ * for hosts where the native library is unavailable
+ */
+@Component
+public class JvmArgonEncoder implements CredentialHasher {
+    static final String NAME = "jvm";
+
+    private static final String HASH_PREFIX = "$argon2id$";
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+
+    private final HashingExecutor hashingExecutor;
+    private final Argon2Parameters parameters;
+
+    private volatile Argon2PasswordEncoder encoder;
+    private volatile int ITERATIONS;
+
+    public JvmArgonEncoder(HashingExecutor hashingExecutor, Argon2Parameters parameters) {
+        this.hashingExecutor = hashingExecutor;
+        this.parameters = parameters;
+        this.ITERATIONS = parameters.getDefaultIterations();
+        this.encoder = newEncoder(ITERATIONS);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public String hashPrefix() {
+        return HASH_PREFIX;
+    }
+
+    /**
+     * Bouncy Castle reads the variant from the hash, so every Argon2 flavour can be verified here
+     */
+    @Override
+    public boolean supports(String hashedText) {
+        return hashedText != null && hashedText.startsWith("$argon2");
+    }
+
+    @Override
+    public void calibrate() {
+        int iterations = parameters.calibrate(NAME, candidate -> newEncoder(candidate).encode("calibration-sample"));
+
+        encoder = newEncoder(iterations);
+        ITERATIONS = iterations;
+    }
+
+    @Override
+    public String encode(String plainText) {
+        Argon2PasswordEncoder current = encoder;
+        return hashingExecutor.execute(() -> current.encode(plainText != null ? plainText : ""));
+    }
+
+    @Override
+    public boolean isValid(String plainText, String hashedText) {
+        // parameters are decoded from the hash, the encoder instance only matters for encoding
+        return hashingExecutor.execute(parameters.memoryCostOf(hashedText), () -> encoder.matches(plainText, hashedText));
+    }
+
+    @Override
+    public boolean needsRehash(String hashedText) {
+        return parameters.needsRehash(hashedText, ITERATIONS);
+    }
+
+    @Override
+    public boolean isWithinCostLimits(String hashedText) {
+        return parameters.isWithinLimits(hashedText);
+    }
+
+    private Argon2PasswordEncoder newEncoder(int iterations){
+        return new Argon2PasswordEncoder(
+                SALT_LENGTH, HASH_LENGTH, parameters.getParallelism(), parameters.getMemoryCost(), iterations
+        );
+    }
+}
@@ -0,0 +1,219 @@
+package org.cross.cauth.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.cross.cauth.Exception.TooManyAttemptsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket throttling of login attempts, checked before any password hash is verified.
+ * Attempts are limited per identity (app id + email, or organization email) against credential
+ * stuffing of one account, and per client IP against spraying across accounts.
+ * <p>
+ * Buckets live in a bounded local cache and each bucket locks only itself, so unrelated keys
+ * never contend. With <code>app.login-throttle.redis.enabled</code> a cluster-wide fixed-window
+ * counter is checked as well, so attackers cannot multiply their budget by spreading over nodes.
+ * <p>
+ * A successful login resets the identity limit, so a user who mistyped a few times is not locked out
+ * later. The IP limit is never reset, one valid account must not refill the budget for spraying others.
+ */
+@Service
+public class LoginThrottleService {
+    private static final String REDIS_PREFIX = "login-throttle:";
+    private static final long REDIS_WINDOW_SECONDS = 60;
+
+    /**
+     * Counts an attempt and starts the window ttl in the same step, a counter can never be left without one
+     */
+    private static final RedisScript<Long> COUNT_ATTEMPT = new DefaultRedisScript<>("""
+            local attempts = redis.call('INCR', KEYS[1])
+            if attempts == 1 then
+                redis.call('EXPIRE', KEYS[1], ARGV[1])
+            end
+            return attempts
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final boolean redisEnabled;
+
+    private final BucketLimit identityLimit;
+    private final BucketLimit ipLimit;
+
+    private final Cache<String, TokenBucket> buckets;
+    private final Counter throttledCounter;
+
+    Logger logger = LoggerFactory.getLogger(LoginThrottleService.class);
+
+    private record BucketLimit(int capacity, double tokensPerNano) {
+        static BucketLimit of(int capacity, int refillPerMinute){
+            return new BucketLimit(capacity, refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1));
+        }
+    }
+
+    public LoginThrottleService(
+            RedisTemplate<String, String> redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.login-throttle.identity.capacity:10}") int identityCapacity,
+            @Value("${app.login-throttle.identity.refill-per-minute:5}") int identityRefillPerMinute,
+            @Value("${app.login-throttle.ip.capacity:50}") int ipCapacity,
+            @Value("${app.login-throttle.ip.refill-per-minute:30}") int ipRefillPerMinute,
+            @Value("${app.login-throttle.max-tracked-keys:100000}") long maxTrackedKeys,
+            @Value("${app.login-throttle.redis.enabled:false}") boolean redisEnabled
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.redisEnabled = redisEnabled;
+        this.identityLimit = BucketLimit.of(identityCapacity, identityRefillPerMinute);
+        this.ipLimit = BucketLimit.of(ipCapacity, ipRefillPerMinute);
+
+        // an idle bucket refills completely well within this, so evicting it loses nothing
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(Duration.ofMinutes(15))
+                .build();
+        this.throttledCounter = Counter.builder("auth.login.throttled")
+                .description("Login attempts rejected before password verification")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a client (end user) login attempt
+     * @param appId app the user belongs to
+     * @param email user's email
+     * @param clientIp remote address of the caller
+     * @throws TooManyAttemptsException if the identity or the IP is over its limit
+     */
+    public void checkUserLogin(String appId, String email, String clientIp){
+        check("user:" + appId + ":" + normalize(email), clientIp);
+    }
+
+    /**
+     * Records an organization login attempt
+     * @param email organization email
+     * @param clientIp remote address of the caller
+     * @throws TooManyAttemptsException if the identity or the IP is over its limit
+     */
+    public void checkOrganizationLogin(String email, String clientIp){
+        check("org:" + normalize(email), clientIp);
+    }
+
+    /**
+     * Resets the identity limit after the user's password was verified
+     * @param appId app the user belongs to
+     * @param email user's email
+     */
+    public void recordSuccessfulUserLogin(String appId, String email){
+        reset("user:" + appId + ":" + normalize(email));
+    }
+
+    /**
+     * Resets the identity limit after the organization's password was verified
+     * @param email organization email
+     */
+    public void recordSuccessfulOrganizationLogin(String email){
+        reset("org:" + normalize(email));
+    }
+
+    private void check(String identityKey, String clientIp){
+        consume("ip:" + clientIp, ipLimit);
+        consume(identityKey, identityLimit);
+    }
+
+    private void consume(String key, BucketLimit limit){
+        long waitNanos = buckets.get(key, k -> new TokenBucket(limit)).tryConsume();
+
+        if(waitNanos > 0){
+            reject(key, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+        }
+
+        if(redisEnabled){
+            consumeClusterWide(key, limit);
+        }
+    }
+
+    private void consumeClusterWide(String key, BucketLimit limit){
+        Long attempts;
+        try {
+            attempts = redisTemplate.execute(COUNT_ATTEMPT, List.of(windowKey(key)), String.valueOf(REDIS_WINDOW_SECONDS));
+        } catch (RuntimeException e) {
+            // the local buckets still protect this node, a Redis outage must not block logins
+            logger.warn("consumeClusterWide : redis unavailable, using local limits only", e);
+            return;
+        }
+
+        if(attempts != null && attempts > limit.capacity()){
+            reject(key, REDIS_WINDOW_SECONDS - (System.currentTimeMillis() / 1000 % REDIS_WINDOW_SECONDS));
+        }
+    }
+
+    private void reset(String key){
+        buckets.invalidate(key);
+
+        if(!redisEnabled){
+            return;
+        }
+
+        try {
+            redisTemplate.delete(windowKey(key));
+        } catch (RuntimeException e) {
+            logger.warn("reset : redis unavailable, cluster-wide counter expires with its window", e);
+        }
+    }
+
+    private static String windowKey(String key){
+        return REDIS_PREFIX + key + ":" + System.currentTimeMillis() / 1000 / REDIS_WINDOW_SECONDS;
+    }
+
+    private void reject(String key, long retryAfterSeconds){
+        throttledCounter.increment();
+        logger.info("reject : throttled login attempts for {}", key.startsWith("ip:") ? "ip" : "identity");
+
+        throw new TooManyAttemptsException("Too many login attempts, please retry later", retryAfterSeconds);
+    }
+
+    private static String normalize(String email){
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class TokenBucket {
+        private final BucketLimit limit;
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(BucketLimit limit) {
+            this.limit = limit;
+            this.tokens = limit.capacity();
+            this.refilledAt = System.nanoTime();
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise nanos until the next token is available
+         */
+        synchronized long tryConsume(){
+            long now = System.nanoTime();
+            tokens = Math.min(limit.capacity(), tokens + (now - refilledAt) * limit.tokensPerNano());
+            refilledAt = now;
+
+            if(tokens >= 1){
+                tokens -= 1;
+                return 0;
+            }
+
+            return limit.tokensPerNano() > 0
+                    ? (long) Math.ceil((1 - tokens) / limit.tokensPerNano())
+                    : TimeUnit.MINUTES.toNanos(1);
+        }
+    }
+}
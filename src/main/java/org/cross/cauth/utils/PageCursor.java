@@ -0,0 +1,63 @@
+package org.cross.cauth.utils;
+
+import org.cross.cauth.Exception.InvalidPageCursorException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset cursors. A cursor is the URL-safe Base64 of the last id on a page,
+ * the next page starts strictly after it.
+ */
+public final class PageCursor {
+    /**
+     * Smallest uuid in the database ordering, the position before the first row
+     */
+    public static final UUID START = new UUID(0L, 0L);
+
+    private PageCursor() {
+    }
+
+    public static String encode(UUID lastId){
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putLong(lastId.getMostSignificantBits());
+        buffer.putLong(lastId.getLeastSignificantBits());
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * @param cursor cursor from a previous page, <code>null</code> or blank for the first page
+     * @return id to continue after
+     * @throws InvalidPageCursorException if the cursor was not issued by {@link #encode}
+     */
+    public static UUID decode(String cursor){
+        if(cursor == null || cursor.isBlank()){
+            return START;
+        }
+
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageCursorException("Invalid page cursor");
+        }
+
+        if(bytes.length != 16){
+            throw new InvalidPageCursorException("Invalid page cursor");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * @param size requested page size
+     * @param maxSize configured cap
+     * @return size clamped to <code>[1, maxSize]</code>
+     */
+    public static int clampSize(int size, int maxSize){
+        return Math.max(1, Math.min(size, maxSize));
+    }
+}
@@ -0,0 +1,274 @@
+package org.cross.cauth.utils;
+
+import org.cross.cauth.Exception.InvalidCredentialsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opaque, rotating refresh tokens for client sessions.
+ * Every refresh token belongs to a family started at login; using a token consumes it
+ * and hands out the next one. Presenting an already consumed token revokes the whole family.
+ * <p>
+ * A family never outlives <code>app.client-token.refresh-max-lifetime-seconds</code> from its login,
+ * however often it rotates. Families are indexed per user so a password change, reset or account
+ * deletion revokes every session of the user.
+ * <p>
+ * Rotation is a single script run, so of two concurrent presentations of one token exactly one
+ * wins and the other is detected as reuse.
+ */
+@Service
+public class RefreshTokenService {
+    private static final String TOKEN_PREFIX = "refresh-token:";
+    private static final String USED_PREFIX = "refresh-used:";
+    private static final String FAMILY_PREFIX = "refresh-family:";
+    private static final String USER_PREFIX = "refresh-user:";
+
+    /**
+     * Adds a family to the user's index and drops families past their maximum lifetime,
+     * the index ttl is set in the same step so the key can never be left without one
+     */
+    private static final RedisScript<Long> INDEX_FAMILY = new DefaultRedisScript<>("""
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ARGV[3])
+            redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+            redis.call('EXPIRE', KEYS[1], ARGV[4])
+            return 1
+            """, Long.class);
+
+    /**
+     * Consumes the presented token, marks it used and moves its family to the next token in one step.
+     * A presented token that was already used revokes its family. Stale entries in the user index are
+     * harmless, revokeAll skips families that no longer exist.
+     * Keys: presented token, its used marker, next token.
+     * Args: presented token, next token, now, max lifetime, refresh ttl, family key prefix, token key prefix.
+     * Returns <code>{outcome, tokenValue}</code>, outcome is ok, reused, expired or invalid.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ROTATE = new DefaultRedisScript<>("""
+            local function revoke(familyKey)
+                local family = redis.call('GET', familyKey)
+                if family then
+                    local current = string.match(family, '^%d+:(.*)$') or family
+                    redis.call('DEL', familyKey, ARGV[7] .. current)
+                end
+            end
+
+            local value = redis.call('GET', KEYS[1])
+            if not value then
+                local reused = redis.call('GET', KEYS[2])
+                if reused then
+                    revoke(ARGV[6] .. string.match(reused, '^[^:]*'))
+                    return {'reused'}
+                end
+                return {'invalid'}
+            end
+
+            redis.call('DEL', KEYS[1])
+
+            local familyKey = ARGV[6] .. string.match(value, '^[^:]*')
+            local family = redis.call('GET', familyKey)
+            if not family then
+                return {'invalid'}
+            end
+
+            local issuedAt, current = string.match(family, '^(%d+):(.*)$')
+            if not issuedAt then
+                -- families started before lifetimes were tracked count as expired
+                issuedAt, current = '0', family
+            end
+            if current ~= ARGV[1] then
+                return {'invalid'}
+            end
+
+            local remaining = tonumber(issuedAt) + tonumber(ARGV[4]) - tonumber(ARGV[3])
+            if remaining <= 0 then
+                redis.call('DEL', familyKey)
+                return {'expired'}
+            end
+
+            local ttl = math.min(tonumber(ARGV[5]), remaining)
+            redis.call('SET', KEYS[2], value, 'EX', ttl)
+            redis.call('SET', KEYS[3], value, 'EX', ttl)
+            redis.call('SET', familyKey, issuedAt .. ':' .. ARGV[2], 'EX', remaining)
+            return {'ok', value}
+            """, List.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final UniqueIdGenerator uniqueIdGenerator;
+    private final long refreshTtlSeconds;
+    private final long maxLifetimeSeconds;
+
+    public record RefreshedSession(String appId, String email, String refreshToken) {}
+
+    /**
+     * Current token of a family and the epoch second the family was started at
+     */
+    private record Family(long issuedAt, String currentToken) {
+        static Family parse(String value){
+            int separator = value.indexOf(':');
+            if(separator < 0){
+                // families started before lifetimes were tracked count as expired
+                return new Family(0, value);
+            }
+
+            return new Family(Long.parseLong(value.substring(0, separator)), value.substring(separator + 1));
+        }
+
+        String format(){
+            return issuedAt + ":" + currentToken;
+        }
+    }
+
+    public RefreshTokenService(
+            RedisTemplate<String, String> redisTemplate,
+            UniqueIdGenerator uniqueIdGenerator,
+            @Value("${app.client-token.refresh-ttl-seconds:2592000}") long refreshTtlSeconds,
+            @Value("${app.client-token.refresh-max-lifetime-seconds:7776000}") long maxLifetimeSeconds
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.uniqueIdGenerator = uniqueIdGenerator;
+        this.refreshTtlSeconds = refreshTtlSeconds;
+        this.maxLifetimeSeconds = maxLifetimeSeconds;
+    }
+
+    /**
+     * Starts a new refresh token family for a freshly authenticated user
+     * @param appId The appId user associated with
+     * @param email The user's email
+     * @return 48 characters refresh token
+     */
+    public String issue(String appId, String email){
+        String familyId = uniqueIdGenerator.generateSLCode(24);
+        long now = Instant.now().getEpochSecond();
+
+        redisTemplate.execute(
+                INDEX_FAMILY,
+                List.of(userKey(appId, email)),
+                familyId,
+                String.valueOf(now + maxLifetimeSeconds),
+                String.valueOf(now),
+                String.valueOf(maxLifetimeSeconds)
+        );
+
+        return store(familyId, now, appId, email);
+    }
+
+    /**
+     * Consumes the refresh token and issues its successor in the same family, in one Redis round trip.
+     * Deleted users need no check here, deleting a user revokes all of its sessions.
+     * @param refreshToken refresh token presented by the client
+     * @return owner of the session and the new refresh token
+     * @throws InvalidCredentialsException if the token is unknown, expired, revoked or reused,
+     * or the family is past its maximum lifetime
+     */
+    public RefreshedSession rotate(String refreshToken){
+        String nextToken = uniqueIdGenerator.generateSLCode(48);
+
+        List<?> result = redisTemplate.execute(
+                ROTATE,
+                List.of(TOKEN_PREFIX + refreshToken, USED_PREFIX + refreshToken, TOKEN_PREFIX + nextToken),
+                refreshToken,
+                nextToken,
+                String.valueOf(Instant.now().getEpochSecond()),
+                String.valueOf(maxLifetimeSeconds),
+                String.valueOf(refreshTtlSeconds),
+                FAMILY_PREFIX,
+                TOKEN_PREFIX
+        );
+
+        String outcome = result == null || result.isEmpty() ? "invalid" : String.valueOf(result.get(0));
+
+        switch (outcome) {
+            case "ok" -> {
+                //value is stored as familyId:appId:email
+                String[] parts = String.valueOf(result.get(1)).split(":", 3);
+                return new RefreshedSession(parts[1], parts[2], nextToken);
+            }
+            case "reused" -> throw new InvalidCredentialsException("Refresh token reuse detected, session revoked");
+            case "expired" -> throw new InvalidCredentialsException("Session expired, please log in again");
+            default -> throw new InvalidCredentialsException("Refresh token is invalid or expired");
+        }
+    }
+
+    /**
+     * Revokes the family the refresh token belongs to, used on sign out
+     * @param refreshToken refresh token presented by the client
+     */
+    public void revoke(String refreshToken){
+        String value = redisTemplate.opsForValue().getAndDelete(TOKEN_PREFIX + refreshToken);
+
+        if(value != null){
+            revokeFamily(value);
+        }
+    }
+
+    /**
+     * Revokes every session of a user, call after the password changed or the user was deleted
+     * @param appId The appId user associated with
+     * @param email The user's email
+     */
+    public void revokeAll(String appId, String email){
+        String userKey = userKey(appId, email);
+        Set<String> familyIds = redisTemplate.opsForZSet().range(userKey, 0, -1);
+
+        if(familyIds == null){
+            return;
+        }
+
+        for(String familyId : familyIds){
+            deleteFamily(familyId);
+            redisTemplate.opsForZSet().remove(userKey, familyId);
+        }
+    }
+
+    private String store(String familyId, long issuedAt, String appId, String email){
+        String refreshToken = uniqueIdGenerator.generateSLCode(48);
+        long remaining = remainingLifetime(issuedAt);
+
+        redisTemplate.opsForValue().set(TOKEN_PREFIX + refreshToken, familyId + ":" + appId + ":" + email, Math.min(refreshTtlSeconds, remaining), TimeUnit.SECONDS);
+        // expires at the family's absolute end of life, rotation never extends it
+        redisTemplate.opsForValue().set(FAMILY_PREFIX + familyId, new Family(issuedAt, refreshToken).format(), remaining, TimeUnit.SECONDS);
+
+        return refreshToken;
+    }
+
+    /**
+     * @param tokenValue stored token value, familyId:appId:email
+     */
+    private void revokeFamily(String tokenValue){
+        String[] parts = tokenValue.split(":", 3);
+
+        deleteFamily(parts[0]);
+
+        if(parts.length < 3){
+            // consumed before the value carried its owner, there is no index entry to clean up
+            return;
+        }
+
+        redisTemplate.opsForZSet().remove(userKey(parts[1], parts[2]), parts[0]);
+    }
+
+    private void deleteFamily(String familyId){
+        String current = redisTemplate.opsForValue().getAndDelete(FAMILY_PREFIX + familyId);
+
+        if(current != null){
+            redisTemplate.delete(TOKEN_PREFIX + Family.parse(current).currentToken());
+        }
+    }
+
+    private long remainingLifetime(long issuedAt){
+        return issuedAt + maxLifetimeSeconds - Instant.now().getEpochSecond();
+    }
+
+    private static String userKey(String appId, String email){
+        return USER_PREFIX + appId + ":" + email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,24 @@
+package org.cross.cauth.utils;
+
+import java.security.SecureRandom;
+
+/**
+ * Independent {@link SecureRandom} instances picked by thread id, so concurrent callers
+ * do not queue on the lock inside a single shared instance
+ */
+public final class SecureRandoms {
+    private static final SecureRandom[] secureRandoms = new SecureRandom[Math.max(2, Runtime.getRuntime().availableProcessors())];
+
+    static {
+        for (int i = 0; i < secureRandoms.length; i++) {
+            secureRandoms[i] = new SecureRandom();
+        }
+    }
+
+    private SecureRandoms() {
+    }
+
+    public static SecureRandom current(){
+        return secureRandoms[(int) (Thread.currentThread().threadId() % secureRandoms.length)];
+    }
+}
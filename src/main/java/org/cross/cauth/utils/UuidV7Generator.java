@@ -0,0 +1,56 @@
+package org.cross.cauth.utils;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RFC 9562 version 7 UUIDs for entity ids: 48 bits of unix milliseconds, a 12 bit counter
+ * and 62 random bits. Postgres compares uuids bytewise, so new rows always land on the right
+ * edge of the primary key index instead of a random page.
+ */
+public class UuidV7Generator implements UuidValueGenerator {
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    /**
+     * Last issued timestamp and counter packed as <code>millis &lt;&lt; COUNTER_BITS | counter</code>,
+     * shared by every entity so ids stay monotonic within this process
+     */
+    private static final AtomicLong lastState = new AtomicLong();
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return generate();
+    }
+
+    public static UUID generate(){
+        long state = nextState();
+
+        long mostSigBits = ((state >>> COUNTER_BITS) << 16)
+                | (0x7L << 12)
+                | (state & COUNTER_MASK);
+        long leastSigBits = (SecureRandoms.current().nextLong() & 0x3FFFFFFFFFFFFFFFL)
+                | 0x8000000000000000L;
+
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    private static long nextState(){
+        while (true) {
+            long previous = lastState.get();
+            long now = System.currentTimeMillis();
+
+            // counter overflow or a clock step back carries into the next millisecond
+            long next = now > (previous >>> COUNTER_BITS)
+                    ? now << COUNTER_BITS
+                    : previous + 1;
+
+            if (lastState.compareAndSet(previous, next)) {
+                return next;
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+-- Schema previously created by hibernate ddl-auto=update.
+-- Written with IF NOT EXISTS so databases that were created that way are adopted as they are.
+
+create table if not exists organization (
+    id uuid not null,
+    org_name varchar(255),
+    email varchar(255),
+    hashed_password varchar(255),
+    is_active boolean not null,
+    joined_on date,
+    role varchar(255),
+    primary key (id)
+);
+
+create table if not exists applications (
+    id uuid not null,
+    app_id varchar(255),
+    owner_email varchar(255),
+    app_secret varchar(255),
+    app_name varchar(255),
+    allowed_callback_urls varchar(255) array,
+    date_of_joining timestamp(6),
+    primary key (id)
+);
+
+create table if not exists users (
+    id uuid not null,
+    auth_id varchar(50) not null,
+    email varchar(255) not null,
+    app_id varchar(255) not null,
+    hashed_password varchar(255) not null,
+    is_email_verified boolean not null,
+    phone_number varchar(20),
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    role varchar(255),
+    primary key (id),
+    constraint users_auth_id_key unique (auth_id)
+);
+
+create table if not exists "jwt-secret-keys" (
+    id bigint generated by default as identity,
+    app_id varchar(255),
+    secret varchar(325),
+    primary key (id)
+);
+
+-- columns added to the signing key table after it was first created
+alter table "jwt-secret-keys" add column if not exists key_id varchar(255);
+alter table "jwt-secret-keys" add column if not exists created_at timestamp(6) with time zone;
+alter table "jwt-secret-keys" add column if not exists retired_at timestamp(6) with time zone;
+alter table "jwt-secret-keys" add column if not exists algorithm varchar(255);
+alter table "jwt-secret-keys" add column if not exists public_key varchar(325);
@@ -0,0 +1,21 @@
+-- Indexes behind the login and token lookups.
+-- Unique indexes fail if duplicates already exist, clean those up before upgrading.
+
+-- UserRepository.findByEmailAndAppId / existsByEmailAndAppId, also serves findByAppId and countByAppId
+create unique index if not exists users_app_id_lower_email_key on users (app_id, lower(email));
+
+-- ApplicationRepository.findByAppId / existsByAppId
+create unique index if not exists applications_app_id_key on applications (app_id);
+
+-- ApplicationRepository.findByOwnerEmail
+create index if not exists applications_owner_email_idx on applications (owner_email);
+
+-- OrganizationRepository.findByEmail / findActiveFlagByEmail
+create unique index if not exists organization_email_key on organization (email);
+
+-- An app keeps several keys while rotated ones are in their grace period, so app_id is not unique.
+-- JwtSecretRepository.findByAppIdOrderByIdDesc
+create index if not exists jwt_secret_keys_app_id_idx on "jwt-secret-keys" (app_id, id desc);
+
+-- JwtSecretService.findVerificationKey resolves the kid header
+create unique index if not exists jwt_secret_keys_key_id_key on "jwt-secret-keys" (key_id);
@@ -0,0 +1,7 @@
+-- Keyset pagination walks these listings in id order.
+
+-- UserRepository.findByAppIdAndIdGreaterThanOrderByIdAsc
+create index if not exists users_app_id_id_idx on users (app_id, id);
+
+-- UserRepository.findByIsEmailVerifiedAndIdGreaterThanOrderByIdAsc
+create index if not exists users_unverified_id_idx on users (id) where is_email_verified = false;
@@ -0,0 +1,10 @@
+-- Maintained per-app user counts, so count endpoints read one row instead of scanning users.
+-- Kept in step by user creation, deletion and bulk import, corrected by UserCountReconciler.
+create table if not exists app_user_counts (
+    app_id     varchar(255) primary key,
+    user_count bigint       not null default 0
+);
+
+insert into app_user_counts (app_id, user_count)
+select app_id, count(*) from users group by app_id
+on conflict (app_id) do update set user_count = excluded.user_count;
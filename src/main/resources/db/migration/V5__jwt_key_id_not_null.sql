@@ -0,0 +1,7 @@
+-- Rows created before key rotation existed got their key id lazily on first read, which let two
+-- nodes assign different ids to the same key. Assign the missing ids once here instead.
+update "jwt-secret-keys"
+set key_id = app_id || '.' || substr(md5(random()::text || clock_timestamp()::text || id::text), 1, 16)
+where key_id is null;
+
+alter table "jwt-secret-keys" alter column key_id set not null;
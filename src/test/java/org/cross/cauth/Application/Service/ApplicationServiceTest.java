@@ -0,0 +1,123 @@
+package org.cross.cauth.Application.Service;
+
+import org.cross.cauth.Application.Repository.ApplicationRepository;
+import org.cross.cauth.Application.domain.Application;
+import org.cross.cauth.Application.dto.ApplicationRequestDto;
+import org.cross.cauth.Application.dto.ApplicationResponseDto;
+import org.cross.cauth.Application.dto.ApplicationSnapshot;
+import org.cross.cauth.Jwt.JwtSecretService;
+import org.cross.cauth.Organization.OrganizationService;
+import org.cross.cauth.utils.CredentialSecurityManager;
+import org.cross.cauth.utils.HmacSecretEncoder;
+import org.cross.cauth.utils.InBuiltIdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ApplicationServiceTest {
+    private static final String APP_ID = "APP.TEST";
+    private static final String ARGON_HASH = "$argon2id$v=19$m=65336,t=12,p=1$c2FsdA$aGFzaA";
+
+    private ApplicationRepository applicationRepository;
+    private ApplicationLookupService applicationLookupService;
+    private CredentialSecurityManager securityManager;
+    private HmacSecretEncoder appSecretEncoder;
+    private ApplicationService applicationService;
+
+    @BeforeEach
+    void setUp() {
+        applicationRepository = mock(ApplicationRepository.class);
+        applicationLookupService = mock(ApplicationLookupService.class);
+        securityManager = mock(CredentialSecurityManager.class);
+        appSecretEncoder = new HmacSecretEncoder("test-pepper");
+
+        OrganizationService organizationService = mock(OrganizationService.class);
+        when(organizationService.doExist(anyString())).thenReturn(true);
+        when(applicationRepository.findByAppName(anyString())).thenReturn(Optional.empty());
+        when(applicationRepository.save(any(Application.class))).thenAnswer(call -> call.getArgument(0));
+
+        applicationService = new ApplicationService(
+                applicationRepository,
+                mock(JwtSecretService.class),
+                organizationService,
+                applicationLookupService,
+                securityManager,
+                appSecretEncoder,
+                new InBuiltIdGenerator(1)
+        );
+    }
+
+    private void storedSecret(String hashedSecret){
+        when(applicationLookupService.find(APP_ID))
+                .thenReturn(Optional.of(new ApplicationSnapshot(null, APP_ID, "app", "org@example.com", hashedSecret, null, null)));
+    }
+
+    @Test
+    void registrationGeneratesTheSecretAndReturnsItOnce() {
+        ApplicationResponseDto response = applicationService.registerNewApp(
+                ApplicationRequestDto.builder().appName("app").ownerEmail("org@example.com").build()
+        );
+
+        ArgumentCaptor<Application> saved = ArgumentCaptor.forClass(Application.class);
+        verify(applicationRepository).save(saved.capture());
+
+        assertThat(response.getAppSecret()).matches("[a-zA-Z0-9]{48}");
+        assertThat(saved.getValue().getAppSecret()).isNotEqualTo(response.getAppSecret());
+        assertThat(appSecretEncoder.isValid(response.getAppSecret(), saved.getValue().getAppSecret())).isTrue();
+    }
+
+    @Test
+    void generatedSecretsAreVerifiedWithoutWrites() {
+        String secret = "generated-secret";
+        storedSecret(appSecretEncoder.encode(secret));
+
+        assertThat(applicationService.verifyApplication(APP_ID, secret)).isTrue();
+        assertThat(applicationService.verifyApplication(APP_ID, "wrong")).isFalse();
+
+        verify(securityManager, never()).isValid(anyString(), anyString());
+        verify(applicationRepository, never()).replaceAppSecret(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void legacySecretsKeepTheirHashWhenItIsCurrent() {
+        storedSecret(ARGON_HASH);
+        when(securityManager.isValid("chosen", ARGON_HASH)).thenReturn(true);
+
+        assertThat(applicationService.verifyApplication(APP_ID, "chosen")).isTrue();
+
+        verify(applicationRepository, never()).replaceAppSecret(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void outdatedLegacySecretsAreRehashedWithTheMemoryHardHash() {
+        storedSecret(ARGON_HASH);
+        when(securityManager.isValid("chosen", ARGON_HASH)).thenReturn(true);
+        when(securityManager.needsRehash(ARGON_HASH)).thenReturn(true);
+        when(securityManager.encode("chosen")).thenReturn("$argon2id$new");
+
+        assertThat(applicationService.verifyApplication(APP_ID, "chosen")).isTrue();
+
+        verify(applicationRepository).replaceAppSecret(APP_ID, ARGON_HASH, "$argon2id$new");
+        verify(applicationLookupService).invalidate(APP_ID);
+    }
+
+    @Test
+    void failedLegacyVerificationNeverRehashes() {
+        storedSecret(ARGON_HASH);
+        when(securityManager.needsRehash(ARGON_HASH)).thenReturn(true);
+
+        assertThat(applicationService.verifyApplication(APP_ID, "wrong")).isFalse();
+
+        verify(applicationRepository, never()).replaceAppSecret(anyString(), anyString(), anyString());
+    }
+}
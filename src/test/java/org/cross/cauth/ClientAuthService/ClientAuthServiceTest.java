@@ -0,0 +1,81 @@
+package org.cross.cauth.ClientAuthService;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.cross.cauth.Application.Service.ApplicationService;
+import org.cross.cauth.Exception.InvalidCredentialsException;
+import org.cross.cauth.Jwt.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ClientAuthServiceTest {
+    private static final String APP_ID = "APP.TEST";
+
+    private ApplicationService applicationService;
+    private JwtService jwtService;
+    private ClientAuthService clientAuthService;
+
+    @BeforeEach
+    void setUp() {
+        applicationService = mock(ApplicationService.class);
+        jwtService = mock(JwtService.class);
+        clientAuthService = new ClientAuthService(null, applicationService, jwtService, null, null, null, null, null);
+
+        when(applicationService.verifyApplication(APP_ID, "secret")).thenReturn(true);
+    }
+
+    private Claims claims(String appId) {
+        Instant now = Instant.now();
+
+        return Jwts.claims()
+                .subject("user@example.com")
+                .add("app", appId)
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plusSeconds(900)))
+                .build();
+    }
+
+    @Test
+    void introspectionReportsActiveTokenOfTheCallingApp() {
+        when(jwtService.verifyClientToken("token", APP_ID)).thenReturn(Optional.of(claims(APP_ID)));
+
+        TokenIntrospectionDto result = clientAuthService.introspect(new IntrospectTokenRequestDto(APP_ID, "secret", "token"));
+
+        assertThat(result.active()).isTrue();
+        assertThat(result.subject()).isEqualTo("user@example.com");
+        assertThat(result.appId()).isEqualTo(APP_ID);
+        assertThat(result.expiresAt()).isAfter(result.issuedAt());
+    }
+
+    @Test
+    void tokenOfAnotherAppIsInactive() {
+        when(jwtService.verifyClientToken("token", APP_ID)).thenReturn(Optional.of(claims("APP.OTHER")));
+
+        TokenIntrospectionDto result = clientAuthService.introspect(new IntrospectTokenRequestDto(APP_ID, "secret", "token"));
+
+        assertThat(result.active()).isFalse();
+        assertThat(result.subject()).isNull();
+    }
+
+    @Test
+    void invalidTokenIsInactive() {
+        when(jwtService.verifyClientToken("token", APP_ID)).thenReturn(Optional.empty());
+
+        assertThat(clientAuthService.introspect(new IntrospectTokenRequestDto(APP_ID, "secret", "token")).active()).isFalse();
+    }
+
+    @Test
+    void wrongAppCredentialsAreRejected() {
+        assertThatThrownBy(() -> clientAuthService.introspect(new IntrospectTokenRequestDto(APP_ID, "wrong", "token")))
+                .isInstanceOf(InvalidCredentialsException.class);
+    }
+}
@@ -0,0 +1,68 @@
+package org.cross.cauth;
+
+import org.cross.cauth.utils.PageCursor;
+import org.cross.cauth.utils.UuidV7Generator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CursorPageTest {
+    private static final List<UUID> ROWS = IntStream.range(0, 25).mapToObj(i -> UuidV7Generator.generate()).toList();
+
+    /**
+     * Same contract as the repositories' <code>findByIdGreaterThanOrderByIdAsc(after, Limit.of(size + 1))</code>
+     */
+    private static List<UUID> fetchAfter(UUID after, int limit){
+        return ROWS.stream().filter(id -> id.compareTo(after) > 0).limit(limit).toList();
+    }
+
+    @Test
+    void walkingAllPagesReturnsEveryRowOnceInOrder() {
+        int size = 10;
+        List<String> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+
+        do {
+            CursorPage<String> page = CursorPage.of(fetchAfter(PageCursor.decode(cursor), size + 1), size, Function.identity(), UUID::toString);
+            seen.addAll(page.items());
+            pageSizes.add(page.items().size());
+            assertThat(page.hasMore()).isEqualTo(page.nextCursor() != null);
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(pageSizes).containsExactly(10, 10, 5);
+        assertThat(seen).containsExactlyElementsOf(ROWS.stream().map(UUID::toString).toList());
+    }
+
+    @Test
+    void nextCursorPointsAtTheLastReturnedRow() {
+        CursorPage<UUID> page = CursorPage.of(fetchAfter(PageCursor.START, 4), 3, Function.identity(), Function.identity());
+
+        assertThat(page.items()).containsExactlyElementsOf(ROWS.subList(0, 3));
+        assertThat(PageCursor.decode(page.nextCursor())).isEqualTo(ROWS.get(2));
+    }
+
+    @Test
+    void exactlyFullLastPageHasNoCursor() {
+        CursorPage<UUID> page = CursorPage.of(ROWS.subList(20, 25), 5, Function.identity(), Function.identity());
+
+        assertThat(page.hasMore()).isFalse();
+        assertThat(page.nextCursor()).isNull();
+        assertThat(page.items()).hasSize(5);
+    }
+
+    @Test
+    void emptyListingHasNoCursor() {
+        CursorPage<UUID> page = CursorPage.of(List.of(), 5, Function.identity(), Function.identity());
+
+        assertThat(page.items()).isEmpty();
+        assertThat(page.nextCursor()).isNull();
+    }
+}
@@ -0,0 +1,136 @@
+package org.cross.cauth.Jwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.cross.cauth.utils.InBuiltIdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtSecretServiceTest {
+    private static final String APP_ID = "APP.TEST";
+
+    private final List<JwtSecretKey> rows = new ArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+    private JwtSecretRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(JwtSecretRepository.class);
+
+        when(repository.save(any(JwtSecretKey.class))).thenAnswer(call -> {
+            JwtSecretKey key = call.getArgument(0);
+            if(key.getId() == 0){
+                key.setId(ids.incrementAndGet());
+                key.setTimestamp();
+                rows.add(key);
+            }
+            return key;
+        });
+        doAnswer(call -> rows.remove(call.<JwtSecretKey>getArgument(0))).when(repository).delete(any(JwtSecretKey.class));
+        when(repository.findByAppIdOrderByIdDesc(anyString())).thenAnswer(call -> rows.stream()
+                .filter(key -> key.getAppId().equals(call.getArgument(0)))
+                .sorted(Comparator.comparingLong(JwtSecretKey::getId).reversed())
+                .toList());
+    }
+
+    private JwtSecretService service(long gracePeriodMinutes) {
+        return service(gracePeriodMinutes, gracePeriodMinutes * 60);
+    }
+
+    private JwtSecretService service(long gracePeriodMinutes, long clientTokenTtlSeconds) {
+        return new JwtSecretService(repository, new InBuiltIdGenerator(1), new SimpleMeterRegistry(), 100, 60, 300, gracePeriodMinutes, clientTokenTtlSeconds);
+    }
+
+    @Test
+    void gracePeriodShorterThanTheClientTokenLifetimeIsRejected() {
+        assertThatThrownBy(() -> service(10, 900)).isInstanceOf(IllegalStateException.class);
+        assertThat(service(60, 900)).isNotNull();
+    }
+
+    @Test
+    void newKeyIdIsPrefixedWithTheAppId() {
+        AppSigningKey key = service(60).createJwtSecret(APP_ID);
+
+        assertThat(key.keyId()).startsWith(APP_ID + ".");
+        assertThat(key.retiredAt()).isNull();
+    }
+
+    @Test
+    void rotationSignsWithTheNewKeyAndKeepsTheOldOneDuringGracePeriod() {
+        JwtSecretService service = service(60);
+        AppSigningKey original = service.createJwtSecret(APP_ID);
+
+        AppSigningKey rotated = service.updateJwtSecret(APP_ID);
+
+        assertThat(rotated.keyId()).isNotEqualTo(original.keyId());
+        assertThat(service.getSigningKey(APP_ID).keyId()).isEqualTo(rotated.keyId());
+        assertThat(service.findVerificationKey(original.keyId(), APP_ID)).isPresent();
+        assertThat(service.findVerificationKey(rotated.keyId(), APP_ID)).isPresent();
+    }
+
+    @Test
+    void retiredKeyStopsVerifyingAfterGracePeriod() {
+        JwtSecretService service = service(0);
+        AppSigningKey original = service.createJwtSecret(APP_ID);
+
+        AppSigningKey rotated = service.updateJwtSecret(APP_ID);
+
+        assertThat(service.findVerificationKey(original.keyId(), APP_ID)).isEmpty();
+        assertThat(service.findVerificationKey(rotated.keyId(), APP_ID)).isPresent();
+    }
+
+    @Test
+    void secondRotationRemovesKeysPastTheirGracePeriod() {
+        JwtSecretService service = service(0);
+        service.createJwtSecret(APP_ID);
+        service.updateJwtSecret(APP_ID);
+
+        service.updateJwtSecret(APP_ID);
+
+        assertThat(rows).hasSize(2);
+    }
+
+    @Test
+    void unknownOrMalformedKeyIdsFindNothing() {
+        JwtSecretService service = service(60);
+        service.createJwtSecret(APP_ID);
+
+        assertThat(service.findVerificationKey(APP_ID + ".unknown", APP_ID)).isEmpty();
+        assertThat(service.findVerificationKey("no-app-prefix", APP_ID)).isEmpty();
+        assertThat(service.findVerificationKey(null, APP_ID)).isEmpty();
+    }
+
+    @Test
+    void keyIdOfAnotherAppIsRejectedWithoutLoadingItsKeys() {
+        JwtSecretService service = service(60);
+        service.createJwtSecret("APP.OTHER");
+
+        assertThat(service.findVerificationKey("APP.OTHER.made-up", APP_ID)).isEmpty();
+        verify(repository, never()).findByAppIdOrderByIdDesc("APP.OTHER");
+    }
+
+    @Test
+    void appsWithoutKeysAreNotCached() {
+        JwtSecretService service = service(60);
+
+        assertThat(service.findVerificationKey("APP.GONE.made-up", "APP.GONE")).isEmpty();
+        assertThat(service.findVerificationKey("APP.GONE.made-up", "APP.GONE")).isEmpty();
+
+        verify(repository, times(2)).findByAppIdOrderByIdDesc("APP.GONE");
+    }
+}
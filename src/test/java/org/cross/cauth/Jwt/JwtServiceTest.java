@@ -0,0 +1,84 @@
+package org.cross.cauth.Jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Encoders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtServiceTest {
+    private static final String APP_ID = "APP.TEST";
+
+    private JwtSecretService jwtSecretService;
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtSecretService = mock(JwtSecretService.class);
+        when(jwtSecretService.findVerificationKey(anyString(), anyString())).thenReturn(Optional.empty());
+
+        jwtService = new JwtService(jwtSecretService);
+        ReflectionTestUtils.setField(jwtService, "JWT_SECRET", Encoders.BASE64.encode(Jwts.SIG.HS256.key().build().getEncoded()));
+        ReflectionTestUtils.setField(jwtService, "JWT_EXP", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "CLIENT_TOKEN_EXP_SECONDS", 900L);
+        ReflectionTestUtils.setField(jwtService, "CLIENT_TOKEN_PARSER_CACHE_SIZE", 100L);
+        jwtService.init();
+    }
+
+    private AppSigningKey hmacKey(String keyId) {
+        return new AppSigningKey(APP_ID, TokenSigningAlgorithm.HS256, keyId, Jwts.SIG.HS256.key().build(), null, null);
+    }
+
+    @Test
+    void clientTokenIsVerifiedWithTheKeyNamedByItsKid() {
+        AppSigningKey key = hmacKey(APP_ID + ".current");
+        when(jwtSecretService.findVerificationKey(key.keyId(), APP_ID)).thenReturn(Optional.of(key.verificationKey()));
+
+        String token = jwtService.generateTokenForClient("user@example.com", APP_ID, key);
+        Optional<Claims> claims = jwtService.verifyClientToken(token, APP_ID);
+
+        assertThat(claims).isPresent();
+        assertThat(claims.get().getSubject()).isEqualTo("user@example.com");
+        assertThat(claims.get().get("app", String.class)).isEqualTo(APP_ID);
+    }
+
+    @Test
+    void clientTokenOfAnUnknownOrExpiredKeyIsRejected() {
+        AppSigningKey key = hmacKey(APP_ID + ".retired");
+
+        String token = jwtService.generateTokenForClient("user@example.com", APP_ID, key);
+
+        assertThat(jwtService.verifyClientToken(token, APP_ID)).isEmpty();
+    }
+
+    @Test
+    void clientTokenSignedWithAnotherKeyIsRejected() {
+        AppSigningKey key = hmacKey(APP_ID + ".current");
+        Key otherSecret = Jwts.SIG.HS256.key().build();
+        when(jwtSecretService.findVerificationKey(key.keyId(), APP_ID)).thenReturn(Optional.of(otherSecret));
+
+        String token = jwtService.generateTokenForClient("user@example.com", APP_ID, key);
+
+        assertThat(jwtService.verifyClientToken(token, APP_ID)).isEmpty();
+        assertThat(jwtService.verifyClientToken("not-a-jwt", APP_ID)).isEmpty();
+    }
+
+    @Test
+    void clientTokenIsRejectedForAnotherApp() {
+        AppSigningKey key = hmacKey(APP_ID + ".current");
+        when(jwtSecretService.findVerificationKey(key.keyId(), APP_ID)).thenReturn(Optional.of(key.verificationKey()));
+
+        String token = jwtService.generateTokenForClient("user@example.com", APP_ID, key);
+
+        assertThat(jwtService.verifyClientToken(token, "APP.OTHER")).isEmpty();
+    }
+}
@@ -0,0 +1,43 @@
+package org.cross.cauth.User.Service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserExportServiceTest {
+
+    @Test
+    void plainValuesAreWrittenAsIs() {
+        assertThat(UserExportService.csv("user@example.com")).isEqualTo("user@example.com");
+        assertThat(UserExportService.csv(true)).isEqualTo("true");
+        assertThat(UserExportService.csv(null)).isEmpty();
+        assertThat(UserExportService.csv("")).isEmpty();
+    }
+
+    @Test
+    void separatorsQuotesAndLineBreaksAreQuoted() {
+        assertThat(UserExportService.csv("a,b")).isEqualTo("\"a,b\"");
+        assertThat(UserExportService.csv("say \"hi\"")).isEqualTo("\"say \"\"hi\"\"\"");
+        assertThat(UserExportService.csv("line\nbreak")).isEqualTo("\"line\nbreak\"");
+    }
+
+    @Test
+    void formulaPrefixesAreNeutralized() {
+        assertThat(UserExportService.csv("=1+1")).isEqualTo("'=1+1");
+        assertThat(UserExportService.csv("+4915112345678")).isEqualTo("'+4915112345678");
+        assertThat(UserExportService.csv("-2+3")).isEqualTo("'-2+3");
+        assertThat(UserExportService.csv("@SUM(A1)")).isEqualTo("'@SUM(A1)");
+        assertThat(UserExportService.csv("\t=cmd")).isEqualTo("'\t=cmd");
+    }
+
+    @Test
+    void leadingCarriageReturnIsNeutralizedAndQuoted() {
+        assertThat(UserExportService.csv("\r=cmd")).isEqualTo("\"'\r=cmd\"");
+    }
+
+    @Test
+    void formulaValuesWithSeparatorsAreNeutralizedInsideTheQuotes() {
+        assertThat(UserExportService.csv("=HYPERLINK(\"http://x\",\"y\")"))
+                .isEqualTo("\"'=HYPERLINK(\"\"http://x\"\",\"\"y\"\")\"");
+    }
+}
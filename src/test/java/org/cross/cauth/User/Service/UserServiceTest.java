@@ -0,0 +1,95 @@
+package org.cross.cauth.User.Service;
+
+import org.cross.cauth.Application.Service.ApplicationLookupService;
+import org.cross.cauth.Exception.UserAlreadyExistsException;
+import org.cross.cauth.User.domain.User;
+import org.cross.cauth.User.dto.CreateUserRequestDto;
+import org.cross.cauth.User.mapper.UserMapper;
+import org.cross.cauth.User.repository.AppUserCountRepository;
+import org.cross.cauth.User.repository.UserRepository;
+import org.cross.cauth.utils.CredentialSecurityManager;
+import org.cross.cauth.utils.InBuiltIdGenerator;
+import org.cross.cauth.utils.RefreshTokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceTest {
+    private static final String APP_ID = "APP.TEST";
+    private static final String EMAIL = "user@example.com";
+
+    private UserRepository userRepository;
+    private AppUserCountRepository appUserCountRepository;
+    private CredentialSecurityManager passwordEncoder;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        appUserCountRepository = mock(AppUserCountRepository.class);
+        passwordEncoder = mock(CredentialSecurityManager.class);
+
+        ApplicationLookupService applicationLookupService = mock(ApplicationLookupService.class);
+        when(applicationLookupService.exists(APP_ID)).thenReturn(true);
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(call -> call.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        when(passwordEncoder.encode(anyString())).thenReturn("$argon2i$hash");
+
+        userService = new UserService(
+                userRepository,
+                appUserCountRepository,
+                passwordEncoder,
+                new UserMapper(),
+                new InBuiltIdGenerator(1),
+                applicationLookupService,
+                mock(RefreshTokenService.class),
+                transactionTemplate
+        );
+    }
+
+    @Test
+    void createsUserAndCountsIt() {
+        when(userRepository.insertIfAbsent(any(User.class))).thenReturn(1);
+
+        User user = userService.createUser(new CreateUserRequestDto(EMAIL, APP_ID, "password123"));
+
+        assertThat(user.getId()).isNotNull();
+        assertThat(user.getAuthId()).startsWith("user.");
+        assertThat(user.getHashedPassword()).isEqualTo("$argon2i$hash");
+        verify(appUserCountRepository).increment(APP_ID, 1);
+    }
+
+    @Test
+    void knownDuplicateIsRejectedBeforeHashing() {
+        when(userRepository.existsByEmailAndAppId(EMAIL, APP_ID)).thenReturn(true);
+
+        assertThatThrownBy(() -> userService.createUser(new CreateUserRequestDto(EMAIL, APP_ID, "password123")))
+                .isInstanceOf(UserAlreadyExistsException.class);
+
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(userRepository, never()).insertIfAbsent(any(User.class));
+    }
+
+    @Test
+    void concurrentDuplicateIsCaughtByTheInsert() {
+        when(userRepository.insertIfAbsent(any(User.class))).thenReturn(0);
+
+        assertThatThrownBy(() -> userService.createUser(new CreateUserRequestDto(EMAIL, APP_ID, "password123")))
+                .isInstanceOf(UserAlreadyExistsException.class);
+
+        verify(appUserCountRepository, never()).increment(anyString(), anyLong());
+    }
+}
@@ -0,0 +1,25 @@
+package org.cross.cauth.benchmark;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks of this package, not part of <code>mvn test</code>.
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/test.classpath -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/test.classpath) org.cross.cauth.benchmark.BenchmarkRunner [regex]
+ * </pre>
+ * The optional regex selects benchmarks, e.g. <code>IdGenerator</code>.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : BenchmarkRunner.class.getPackageName() + ".*")
+                .build();
+
+        new Runner(options).run();
+    }
+}
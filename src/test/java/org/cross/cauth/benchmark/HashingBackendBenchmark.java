@@ -0,0 +1,76 @@
+package org.cross.cauth.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.cross.cauth.utils.Argon2Parameters;
+import org.cross.cauth.utils.ArgonEncoder;
+import org.cross.cauth.utils.BcryptEncoder;
+import org.cross.cauth.utils.CredentialHasher;
+import org.cross.cauth.utils.HashingExecutor;
+import org.cross.cauth.utils.JvmArgonEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password verification latency per hashing backend at the production default cost, run through the
+ * memory-budgeted HashingExecutor the way login requests are. Calibration is off so every backend
+ * hashes with the same parameters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(Threads.MAX)
+public class HashingBackendBenchmark {
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"native", "jvm", "bcrypt"})
+    private String backend;
+
+    private HashingExecutor hashingExecutor;
+    private CredentialHasher hasher;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Argon2Parameters parameters = new Argon2Parameters();
+        ReflectionTestUtils.setField(parameters, "calibrate", false);
+        ReflectionTestUtils.setField(parameters, "defaultIterations", 12);
+        ReflectionTestUtils.setField(parameters, "PARALLELISM", 1);
+
+        hashingExecutor = new HashingExecutor(new SimpleMeterRegistry(), 512, 64, 1);
+        hasher = switch (backend) {
+            case "native" -> new ArgonEncoder(hashingExecutor, parameters);
+            case "jvm" -> new JvmArgonEncoder(hashingExecutor, parameters);
+            case "bcrypt" -> new BcryptEncoder(hashingExecutor, 12, 14);
+            default -> throw new IllegalArgumentException("Unknown backend " + backend);
+        };
+        hash = hasher.encode(PASSWORD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        hashingExecutor.shutdown();
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return hasher.isValid(PASSWORD, hash);
+    }
+}
@@ -0,0 +1,53 @@
+package org.cross.cauth.benchmark;
+
+import org.cross.cauth.utils.InBuiltIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of app/auth id and secret code generation, single threaded and with every core contending
+ * on the generator's shared state
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGeneratorBenchmark {
+    private final InBuiltIdGenerator generator = new InBuiltIdGenerator(1);
+
+    @Benchmark
+    @Threads(1)
+    public String generate() {
+        return generator.generate();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String generateContended() {
+        return generator.generate();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String secretCode() {
+        return generator.generateSLCode(16);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String secretCodeContended() {
+        return generator.generateSLCode(16);
+    }
+}
@@ -0,0 +1,73 @@
+package org.cross.cauth.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.cross.cauth.Jwt.JwtService;
+import org.cross.cauth.Jwt.VerifiedToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Organization token verification with the key and parser built per call, as before they were shared,
+ * against the shared instances JwtService builds once at startup
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+public class JwtParsingBenchmark {
+    private String secret;
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        secret = Encoders.BASE64.encode(Jwts.SIG.HS256.key().build().getEncoded());
+
+        // organization tokens never look up app keys, so no JwtSecretService is needed
+        jwtService = new JwtService(null);
+        ReflectionTestUtils.setField(jwtService, "JWT_SECRET", secret);
+        ReflectionTestUtils.setField(jwtService, "JWT_EXP", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+        token = jwtService.generateTokenWithRole("org@example.com", "ROLE_ORGANIZATION");
+    }
+
+    @Benchmark
+    public Claims parserPerCall() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    @Benchmark
+    public Claims sharedParser() {
+        return jwtService.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public Optional<VerifiedToken> verify() {
+        return jwtService.verify(token);
+    }
+}
@@ -0,0 +1,54 @@
+package org.cross.cauth.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+    private static final String TOKEN = "header.payload.signature";
+
+    private static UserDetails principal(){
+        return User.withUsername("org@example.com")
+                .password("$argon2id$v=19$m=65336,t=12,p=1$c2FsdA$aGFzaA")
+                .authorities("ROLE_ORGANIZATION")
+                .build();
+    }
+
+    @Test
+    void cachedPrincipalCarriesNoCredentials() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(new SimpleMeterRegistry(), 100, 30, 30);
+
+        cache.put(TOKEN, principal(), Instant.now().plusSeconds(60));
+
+        UserDetails cached = cache.get(TOKEN).orElseThrow();
+        assertThat(cached.getUsername()).isEqualTo("org@example.com");
+        assertThat(cached.getPassword()).isEmpty();
+        assertThat(cached.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_ORGANIZATION");
+    }
+
+    @Test
+    void entriesDoNotOutliveTheOrganizationStatusTtl() throws InterruptedException {
+        VerifiedTokenCache cache = new VerifiedTokenCache(new SimpleMeterRegistry(), 100, 300, 1);
+
+        cache.put(TOKEN, principal(), Instant.now().plusSeconds(600));
+        assertThat(cache.get(TOKEN)).isPresent();
+
+        Thread.sleep(1100);
+
+        assertThat(cache.get(TOKEN)).isEmpty();
+    }
+
+    @Test
+    void expiredTokensAreNotCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(new SimpleMeterRegistry(), 100, 30, 30);
+
+        cache.put(TOKEN, principal(), Instant.now().minusSeconds(1));
+
+        assertThat(cache.get(TOKEN)).isEmpty();
+    }
+}
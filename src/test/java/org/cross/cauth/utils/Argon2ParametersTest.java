@@ -0,0 +1,97 @@
+package org.cross.cauth.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Argon2ParametersTest {
+    private Argon2Parameters parameters;
+
+    @BeforeEach
+    void setUp() {
+        parameters = new Argon2Parameters();
+        ReflectionTestUtils.setField(parameters, "calibrate", true);
+        ReflectionTestUtils.setField(parameters, "targetLatencyMs", 250L);
+        ReflectionTestUtils.setField(parameters, "defaultIterations", 12);
+        ReflectionTestUtils.setField(parameters, "minIterations", 3);
+        ReflectionTestUtils.setField(parameters, "maxIterations", 24);
+        ReflectionTestUtils.setField(parameters, "PARALLELISM", 1);
+    }
+
+    private static String hash(int memory, int iterations, int parallelism){
+        return "$argon2id$v=19$m=" + memory + ",t=" + iterations + ",p=" + parallelism + "$c2FsdHNhbHQ$aGFzaGhhc2g";
+    }
+
+    @Test
+    void fastMachinesAreCappedAtTheMaximumIterations() {
+        assertThat(parameters.calibrate("test", iterations -> {})).isEqualTo(24);
+    }
+
+    @Test
+    void slowMachinesNeverGoBelowTheMinimumIterations() {
+        ReflectionTestUtils.setField(parameters, "targetLatencyMs", 1L);
+
+        assertThat(parameters.calibrate("test", iterations -> sleep(10L * iterations))).isEqualTo(3);
+    }
+
+    @Test
+    void calibrationMeasuresAtTheMinimumIterations() {
+        List<Integer> sampled = new ArrayList<>();
+
+        parameters.calibrate("test", sampled::add);
+
+        assertThat(sampled).containsOnly(3);
+    }
+
+    @Test
+    void disabledCalibrationUsesTheConfiguredIterations() {
+        ReflectionTestUtils.setField(parameters, "calibrate", false);
+        List<Integer> sampled = new ArrayList<>();
+
+        assertThat(parameters.calibrate("test", sampled::add)).isEqualTo(12);
+        assertThat(sampled).isEmpty();
+    }
+
+    @Test
+    void hashesWithFewerIterationsNeedRehash() {
+        assertThat(parameters.needsRehash(hash(Argon2Parameters.MEMORY_COST, 8, 1), 12)).isTrue();
+        assertThat(parameters.needsRehash(hash(Argon2Parameters.MEMORY_COST, 12, 1), 12)).isFalse();
+    }
+
+    @Test
+    void hashesWithMoreIterationsAreKept() {
+        // a restart that calibrates slightly lower must not churn every stored hash
+        assertThat(parameters.needsRehash(hash(Argon2Parameters.MEMORY_COST, 14, 1), 12)).isFalse();
+    }
+
+    @Test
+    void hashesWithOtherMemoryOrParallelismNeedRehash() {
+        assertThat(parameters.needsRehash(hash(4096, 12, 1), 12)).isTrue();
+        assertThat(parameters.needsRehash(hash(Argon2Parameters.MEMORY_COST, 12, 3), 12)).isTrue();
+    }
+
+    @Test
+    void unreadableHashesAreLeftAlone() {
+        assertThat(parameters.needsRehash("$2a$12$R9h/cIPz0gi.URNNX3kh2OPST9/PgBkqquzi.Ss7KIUgO2t0jWMUW", 12)).isFalse();
+        assertThat(parameters.needsRehash(null, 12)).isFalse();
+    }
+
+    @Test
+    void memoryCostIsReadFromTheHash() {
+        assertThat(parameters.memoryCostOf(hash(262144, 3, 1))).isEqualTo(262144);
+        assertThat(parameters.memoryCostOf("not a hash")).isEqualTo(Argon2Parameters.MEMORY_COST);
+    }
+
+    private static void sleep(long millis){
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
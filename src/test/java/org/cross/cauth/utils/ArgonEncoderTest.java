@@ -0,0 +1,50 @@
+package org.cross.cauth.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the native library for real, a binding that does not match the loaded libargon2 crashes the JVM here
+ * instead of in production
+ */
+class ArgonEncoderTest {
+    private HashingExecutor hashingExecutor;
+    private ArgonEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        Argon2Parameters parameters = new Argon2Parameters();
+        ReflectionTestUtils.setField(parameters, "calibrate", false);
+        ReflectionTestUtils.setField(parameters, "defaultIterations", 2);
+        ReflectionTestUtils.setField(parameters, "PARALLELISM", 1);
+
+        hashingExecutor = new HashingExecutor(new SimpleMeterRegistry(), 512, 8, 1);
+        encoder = new ArgonEncoder(hashingExecutor, parameters);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hashingExecutor.shutdown();
+    }
+
+    @Test
+    void hashesVerifyWithTheNativeLibrary() {
+        String hash = encoder.encode("correct horse battery staple");
+
+        assertThat(hash).startsWith("$argon2i$v=19$m=" + Argon2Parameters.MEMORY_COST + ",t=2,p=1$");
+        assertThat(encoder.supports(hash)).isTrue();
+        assertThat(encoder.isValid("correct horse battery staple", hash)).isTrue();
+        assertThat(encoder.isValid("wrong", hash)).isFalse();
+        assertThat(encoder.needsRehash(hash)).isFalse();
+    }
+
+    @Test
+    void hashesOfTheJvmBackendAreNotClaimed() {
+        assertThat(encoder.supports("$argon2id$v=19$m=65336,t=2,p=1$c2FsdA$aGFzaA")).isFalse();
+    }
+}
@@ -0,0 +1,74 @@
+package org.cross.cauth.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Imported hashes carry their own cost parameters and must not be able to stall verification
+ */
+class CredentialCostLimitsTest {
+    private CredentialSecurityRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        Argon2Parameters parameters = new Argon2Parameters();
+        ReflectionTestUtils.setField(parameters, "calibrate", false);
+        ReflectionTestUtils.setField(parameters, "defaultIterations", 12);
+        ReflectionTestUtils.setField(parameters, "minIterations", 3);
+        ReflectionTestUtils.setField(parameters, "maxIterations", 24);
+        ReflectionTestUtils.setField(parameters, "PARALLELISM", 1);
+        ReflectionTestUtils.setField(parameters, "maxParallelism", 8);
+        ReflectionTestUtils.setField(parameters, "memoryBudgetMb", 512L);
+
+        HashingExecutor hashingExecutor = mock(HashingExecutor.class);
+
+        registry = new CredentialSecurityRegistry(
+                List.of(new JvmArgonEncoder(hashingExecutor, parameters), new BcryptEncoder(hashingExecutor, 12, 14)),
+                JvmArgonEncoder.NAME
+        );
+    }
+
+    @Test
+    void acceptsArgon2HashWithinLimits() {
+        assertThat(registry.isWithinCostLimits("$argon2id$v=19$m=65336,t=12,p=1$c2FsdHNhbHQ$aGFzaGhhc2g")).isTrue();
+    }
+
+    @Test
+    void rejectsArgon2HashLargerThanTheMemoryBudget() {
+        assertThat(registry.isWithinCostLimits("$argon2id$v=19$m=4194304,t=3,p=1$c2FsdHNhbHQ$aGFzaGhhc2g")).isFalse();
+    }
+
+    @Test
+    void rejectsArgon2HashWithTooManyIterations() {
+        assertThat(registry.isWithinCostLimits("$argon2id$v=19$m=65336,t=100000,p=1$c2FsdHNhbHQ$aGFzaGhhc2g")).isFalse();
+    }
+
+    @Test
+    void rejectsArgon2HashWithParallelismOutOfRange() {
+        assertThat(registry.isWithinCostLimits("$argon2i$v=19$m=65336,t=12,p=0$c2FsdHNhbHQ$aGFzaGhhc2g")).isFalse();
+        assertThat(registry.isWithinCostLimits("$argon2i$v=19$m=65336,t=12,p=64$c2FsdHNhbHQ$aGFzaGhhc2g")).isFalse();
+    }
+
+    @Test
+    void rejectsArgon2HashWithUnreadableParameters() {
+        assertThat(registry.isWithinCostLimits("$argon2id$v=19$m=99999999999999999999,t=3,p=1$c2FsdA$aGFzaA")).isFalse();
+        assertThat(registry.isWithinCostLimits("$argon2id$v=19$c2FsdA$aGFzaA")).isFalse();
+    }
+
+    @Test
+    void boundsBcryptCost() {
+        assertThat(registry.isWithinCostLimits("$2a$12$R9h/cIPz0gi.URNNX3kh2OPST9/PgBkqquzi.Ss7KIUgO2t0jWMUW")).isTrue();
+        assertThat(registry.isWithinCostLimits("$2b$31$R9h/cIPz0gi.URNNX3kh2OPST9/PgBkqquzi.Ss7KIUgO2t0jWMUW")).isFalse();
+    }
+
+    @Test
+    void rejectsUnknownFormats() {
+        assertThat(registry.isWithinCostLimits("{MD5}5f4dcc3b5aa765d61d8327deb882cf99")).isFalse();
+    }
+}
@@ -0,0 +1,211 @@
+package org.cross.cauth.utils;
+
+import org.luaj.vm2.Globals;
+import org.luaj.vm2.LuaTable;
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Varargs;
+import org.luaj.vm2.lib.VarArgFunction;
+import org.luaj.vm2.lib.jse.JsePlatform;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * In-memory stand-in for the Redis commands the services use. Lua scripts run for real on LuaJ,
+ * with <code>redis.call</code> bound to the same data, so a test exercises the script text that ships.
+ * Expiry is recorded but not enforced.
+ */
+class FakeRedis {
+    final Map<String, String> values = new HashMap<>();
+    final Map<String, TreeMap<String, Double>> sortedSets = new HashMap<>();
+    final Map<String, Long> ttlSeconds = new HashMap<>();
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    @SuppressWarnings("unchecked")
+    FakeRedis() {
+        redisTemplate = mock(RedisTemplate.class);
+
+        ValueOperations<String, String> valueOps = mock(ValueOperations.class);
+        when(valueOps.get(anyString())).thenAnswer(call -> values.get(call.<String>getArgument(0)));
+        when(valueOps.getAndDelete(anyString())).thenAnswer(call -> values.remove(call.<String>getArgument(0)));
+        doAnswer(call -> {
+            set(call.getArgument(0), call.getArgument(1), call.<TimeUnit>getArgument(3).toSeconds(call.getArgument(2)));
+            return null;
+        }).when(valueOps).set(anyString(), anyString(), anyLong(), any(TimeUnit.class));
+
+        ZSetOperations<String, String> zSetOps = mock(ZSetOperations.class);
+        when(zSetOps.range(anyString(), eq(0L), eq(-1L)))
+                .thenAnswer(call -> new LinkedHashSet<>(sortedSets.getOrDefault(call.<String>getArgument(0), new TreeMap<>()).keySet()));
+        when(zSetOps.remove(anyString(), any()))
+                .thenAnswer(call -> sortedSets.getOrDefault(call.<String>getArgument(0), new TreeMap<>()).remove(call.<String>getArgument(1)) != null ? 1L : 0L);
+
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOps);
+        when(redisTemplate.delete(anyString())).thenAnswer(call -> delete(call.getArgument(0)));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenAnswer(call -> eval(call.getArgument(0), call.getArgument(1), call.getRawArguments()));
+    }
+
+    RedisTemplate<String, String> template() {
+        return redisTemplate;
+    }
+
+    private void set(String key, String value, Long ttl) {
+        values.put(key, value);
+        if (ttl == null) {
+            ttlSeconds.remove(key);
+        } else {
+            ttlSeconds.put(key, ttl);
+        }
+    }
+
+    private boolean delete(String key) {
+        ttlSeconds.remove(key);
+        return values.remove(key) != null | sortedSets.remove(key) != null;
+    }
+
+    private Object eval(RedisScript<?> script, List<String> keys, Object[] rawArguments) {
+        Globals globals = JsePlatform.standardGlobals();
+
+        LuaTable keyTable = new LuaTable();
+        for (int i = 0; i < keys.size(); i++) {
+            keyTable.set(i + 1, LuaValue.valueOf(keys.get(i)));
+        }
+
+        // execute(script, keys, args...) arrives either as one Object[] or as spread varargs
+        List<Object> args = new ArrayList<>();
+        for (int i = 2; i < rawArguments.length; i++) {
+            if (rawArguments[i] instanceof Object[] array) {
+                args.addAll(List.of(array));
+            } else {
+                args.add(rawArguments[i]);
+            }
+        }
+        LuaTable argTable = new LuaTable();
+        for (int i = 0; i < args.size(); i++) {
+            argTable.set(i + 1, LuaValue.valueOf(String.valueOf(args.get(i))));
+        }
+
+        LuaTable redis = new LuaTable();
+        redis.set("call", new VarArgFunction() {
+            @Override
+            public Varargs invoke(Varargs call) {
+                return command(call);
+            }
+        });
+
+        globals.set("KEYS", keyTable);
+        globals.set("ARGV", argTable);
+        globals.set("redis", redis);
+
+        return toJava(globals.load(script.getScriptAsString()).call());
+    }
+
+    private LuaValue command(Varargs call) {
+        String command = call.checkjstring(1).toUpperCase(Locale.ROOT);
+        String key = call.arg(2).tojstring();
+
+        switch (command) {
+            case "GET" -> {
+                String value = values.get(key);
+                // Redis hands a missing key to Lua as false, not nil
+                return value != null ? LuaValue.valueOf(value) : LuaValue.FALSE;
+            }
+            case "SET" -> {
+                Long ttl = call.narg() >= 5 && "EX".equalsIgnoreCase(call.arg(4).tojstring())
+                        ? (long) call.arg(5).todouble()
+                        : null;
+                set(key, call.arg(3).tojstring(), ttl);
+                return LuaValue.valueOf("OK");
+            }
+            case "DEL" -> {
+                int deleted = 0;
+                for (int i = 2; i <= call.narg(); i++) {
+                    deleted += delete(call.arg(i).tojstring()) ? 1 : 0;
+                }
+                return LuaValue.valueOf(deleted);
+            }
+            case "INCR" -> {
+                long next = Long.parseLong(values.getOrDefault(key, "0")) + 1;
+                values.put(key, String.valueOf(next));
+                return LuaValue.valueOf(next);
+            }
+            case "EXPIRE" -> {
+                boolean exists = values.containsKey(key) || sortedSets.containsKey(key);
+                if (exists) {
+                    ttlSeconds.put(key, (long) call.arg(3).todouble());
+                }
+                return LuaValue.valueOf(exists ? 1 : 0);
+            }
+            case "ZADD" -> {
+                Double previous = sortedSets.computeIfAbsent(key, k -> new TreeMap<>())
+                        .put(call.arg(4).tojstring(), call.arg(3).todouble());
+                return LuaValue.valueOf(previous == null ? 1 : 0);
+            }
+            case "ZREMRANGEBYSCORE" -> {
+                double min = score(call.arg(3).tojstring());
+                double max = score(call.arg(4).tojstring());
+                TreeMap<String, Double> members = sortedSets.getOrDefault(key, new TreeMap<>());
+                int before = members.size();
+                members.values().removeIf(score -> score >= min && score <= max);
+                return LuaValue.valueOf(before - members.size());
+            }
+            default -> throw new UnsupportedOperationException("FakeRedis does not support " + command);
+        }
+    }
+
+    private static double score(String bound) {
+        return switch (bound) {
+            case "-inf" -> Double.NEGATIVE_INFINITY;
+            case "+inf" -> Double.POSITIVE_INFINITY;
+            default -> Double.parseDouble(bound);
+        };
+    }
+
+    /**
+     * Same conversions Redis applies to script results: numbers become integers, tables become lists
+     */
+    private static Object toJava(LuaValue value) {
+        if (value.isnil() || value == LuaValue.FALSE) {
+            return null;
+        }
+        if (value.istable()) {
+            List<Object> list = new ArrayList<>();
+            for (int i = 1; i <= value.length(); i++) {
+                list.add(toJava(value.get(i)));
+            }
+            return list;
+        }
+        if (value.type() == LuaValue.TNUMBER) {
+            return value.tolong();
+        }
+        return value.tojstring();
+    }
+
+    Set<String> keys() {
+        Set<String> keys = new LinkedHashSet<>(values.keySet());
+        keys.addAll(sortedSets.keySet());
+        return keys;
+    }
+}
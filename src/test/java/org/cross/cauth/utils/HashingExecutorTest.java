@@ -0,0 +1,187 @@
+package org.cross.cauth.utils;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.cross.cauth.Exception.HashingCapacityExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HashingExecutorTest {
+    private HashingExecutor hashingExecutor;
+
+    @AfterEach
+    void tearDown() {
+        hashingExecutor.shutdown();
+    }
+
+    /**
+     * Runs tasks of the given memory cost concurrently and reports the highest number that ran at the same time
+     */
+    private int maxConcurrent(int tasks, int memoryKb) {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        try (ExecutorService callers = Executors.newFixedThreadPool(tasks)) {
+            for (int i = 0; i < tasks; i++) {
+                futures.add(CompletableFuture.runAsync(() -> hashingExecutor.execute(memoryKb, () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(50);
+                    running.decrementAndGet();
+                    return null;
+                }), callers));
+            }
+
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        }
+
+        return maxRunning.get();
+    }
+
+    @Test
+    void concurrentHashesAreBoundedByTheMemoryBudget() {
+        // room for two hashes at the default cost
+        hashingExecutor = new HashingExecutor(new SimpleMeterRegistry(), 2L * Argon2Parameters.MEMORY_COST / 1024 + 1, 64, 1);
+
+        assertThat(maxConcurrent(6, Argon2Parameters.MEMORY_COST)).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void fullQueueIsRejectedWithRetryAfter() throws Exception {
+        // one worker, one queue slot, tasks small enough that the budget never gates them
+        hashingExecutor = new HashingExecutor(new SimpleMeterRegistry(), 64, 1, 3);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Object> running = CompletableFuture.supplyAsync(() -> hashingExecutor.execute(1, () -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Object> queued = CompletableFuture.supplyAsync(() -> hashingExecutor.execute(1, () -> "queued"));
+
+        // wait until the second task occupies the queue slot
+        Thread.sleep(200);
+
+        assertThatThrownBy(() -> hashingExecutor.execute(1, () -> "rejected"))
+                .isInstanceOf(HashingCapacityExceededException.class)
+                .satisfies(e -> assertThat(((HashingCapacityExceededException) e).getRetryAfterSeconds()).isEqualTo(3));
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo(true);
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+    }
+
+    @Test
+    void largerHashesRunWithinTheMemoryBudget() {
+        // room for two hashes at the default cost
+        hashingExecutor = new HashingExecutor(new SimpleMeterRegistry(), 2L * Argon2Parameters.MEMORY_COST / 1024 + 1, 64, 5);
+
+        assertThat(maxConcurrent(4, 2 * Argon2Parameters.MEMORY_COST)).isEqualTo(1);
+    }
+
+    @Test
+    void reservedMemoryNeverExceedsTheBudgetWithMixedCosts() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        long budgetMb = 2L * Argon2Parameters.MEMORY_COST / 1024 + 1;
+        hashingExecutor = new HashingExecutor(meterRegistry, budgetMb, 64, 5);
+        Gauge reserved = meterRegistry.get("credential.hashing.memory.reserved").gauge();
+        AtomicLong maxReserved = new AtomicLong();
+
+        try (ExecutorService callers = Executors.newFixedThreadPool(8)) {
+            List<CompletableFuture<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                int memoryKb = (i % 2 + 1) * Argon2Parameters.MEMORY_COST / 2;
+                futures.add(CompletableFuture.supplyAsync(() -> hashingExecutor.execute(memoryKb, () -> {
+                    maxReserved.accumulateAndGet((long) reserved.value(), Math::max);
+                    Thread.sleep(20);
+                    return null;
+                }), callers));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        }
+
+        assertThat(maxReserved.get()).isPositive().isLessThanOrEqualTo(budgetMb * 1024 * 1024);
+        assertThat(reserved.value()).isZero();
+    }
+
+    @Test
+    void hashLargerThanTheWholeBudgetStillRuns() {
+        hashingExecutor = new HashingExecutor(new SimpleMeterRegistry(), 64, 8, 1);
+
+        assertThat(hashingExecutor.execute(Integer.MAX_VALUE, () -> "done")).isEqualTo("done");
+    }
+
+    @Test
+    void callerIsRejectedWhenNoBudgetFreesUpInTime() throws Exception {
+        hashingExecutor = new HashingExecutor(new SimpleMeterRegistry(), 64, 8, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Object> running = CompletableFuture.supplyAsync(() -> hashingExecutor.execute(Integer.MAX_VALUE, () -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> hashingExecutor.execute(() -> "rejected"))
+                .isInstanceOf(HashingCapacityExceededException.class);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo(true);
+    }
+
+    @Test
+    void taskCancelledBeforeItStartsReturnsItsBudget() throws Exception {
+        // a single worker, so the second task waits in the queue while holding its budget
+        hashingExecutor = new HashingExecutor(new SimpleMeterRegistry(), 64, 8, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Object> running = CompletableFuture.supplyAsync(() -> hashingExecutor.execute(1, () -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Thread queued = new Thread(() -> {
+            try {
+                hashingExecutor.execute(1000, () -> "never runs");
+            } catch (IllegalStateException ignored) {
+                // interrupted while queued
+            }
+        });
+        queued.start();
+        Thread.sleep(200);
+        queued.interrupt();
+        queued.join(5000);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo(true);
+
+        // only possible if the cancelled task gave back its permits
+        assertThat(hashingExecutor.execute(Integer.MAX_VALUE, () -> "whole budget")).isEqualTo("whole budget");
+    }
+
+    @Test
+    void taskExceptionsReachTheCaller() {
+        hashingExecutor = new HashingExecutor(new SimpleMeterRegistry(), 64, 8, 1);
+
+        assertThatThrownBy(() -> hashingExecutor.execute(() -> {
+            throw new IllegalArgumentException("bad hash");
+        })).isInstanceOf(IllegalArgumentException.class).hasMessage("bad hash");
+    }
+}
@@ -0,0 +1,86 @@
+package org.cross.cauth.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InBuiltIdGeneratorTest {
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 50_000;
+
+    @Test
+    void idsAreUniqueAndOrderedPerThreadUnderContention() throws Exception {
+        InBuiltIdGenerator generator = new InBuiltIdGenerator(7);
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            List<Future<Boolean>> orderedPerThread = new ArrayList<>();
+
+            for (int t = 0; t < THREADS; t++) {
+                orderedPerThread.add(executor.submit(() -> {
+                    start.await();
+                    String previous = "";
+                    boolean ordered = true;
+
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        String id = generator.generate();
+                        ordered &= id.compareTo(previous) > 0;
+                        seen.add(id);
+                        previous = id;
+                    }
+
+                    return ordered;
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<Boolean> ordered : orderedPerThread) {
+                assertThat(ordered.get()).isTrue();
+            }
+        }
+
+        assertThat(seen).hasSize(THREADS * IDS_PER_THREAD);
+    }
+
+    @Test
+    void idsOfDifferentNodesNeverCollide() {
+        InBuiltIdGenerator first = new InBuiltIdGenerator(1);
+        InBuiltIdGenerator second = new InBuiltIdGenerator(2);
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+
+        for (int i = 0; i < 100_000; i++) {
+            seen.add(first.generate());
+            seen.add(second.generate());
+        }
+
+        assertThat(seen).hasSize(200_000);
+    }
+
+    @Test
+    void idHasPrefixAndFixedLength() {
+        assertThat(new InBuiltIdGenerator(0).generate()).matches("APP\\.[0-9A-HJKMNP-TV-Z]{13}");
+    }
+
+    @Test
+    void nodeIdMustBeConfiguredAndInRange() {
+        assertThatThrownBy(() -> new InBuiltIdGenerator(-1)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new InBuiltIdGenerator(1024)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void secretCodeHasRequestedLengthAndAlphabet() {
+        assertThat(new InBuiltIdGenerator(0).generateSLCode(48)).matches("[a-zA-Z0-9]{48}");
+    }
+}
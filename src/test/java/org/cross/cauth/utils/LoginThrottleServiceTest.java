@@ -0,0 +1,130 @@
+package org.cross.cauth.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.cross.cauth.Exception.TooManyAttemptsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LoginThrottleServiceTest {
+    private static final String APP_ID = "APP.TEST";
+    private static final String IP = "203.0.113.7";
+
+    private final Map<String, Long> counters = new HashMap<>();
+
+    private RedisTemplate<String, String> redisTemplate;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenAnswer(call -> {
+            List<String> keys = call.getArgument(1);
+            return counters.merge(keys.get(0), 1L, Long::sum);
+        });
+        when(redisTemplate.delete(anyString())).thenAnswer(call -> counters.remove(call.<String>getArgument(0)) != null);
+    }
+
+    /**
+     * Buckets without refill, so the outcome never depends on how fast the test runs
+     */
+    private LoginThrottleService service(int identityCapacity, int ipCapacity, boolean redisEnabled){
+        return new LoginThrottleService(redisTemplate, new SimpleMeterRegistry(), identityCapacity, 0, ipCapacity, 0, 1000, redisEnabled);
+    }
+
+    private static void attempts(LoginThrottleService service, String email, int count){
+        for (int i = 0; i < count; i++) {
+            service.checkUserLogin(APP_ID, email, IP);
+        }
+    }
+
+    @Test
+    void identityIsThrottledOnceItsBucketIsEmpty() {
+        LoginThrottleService service = service(3, 100, false);
+        attempts(service, "user@example.com", 3);
+
+        assertThatThrownBy(() -> service.checkUserLogin(APP_ID, "USER@example.com ", IP))
+                .isInstanceOf(TooManyAttemptsException.class)
+                .satisfies(e -> assertThat(((TooManyAttemptsException) e).getRetryAfterSeconds()).isPositive());
+
+        assertThatCode(() -> service.checkUserLogin(APP_ID, "other@example.com", IP)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void ipIsThrottledAcrossIdentities() {
+        LoginThrottleService service = service(100, 3, false);
+        service.checkUserLogin(APP_ID, "a@example.com", IP);
+        service.checkUserLogin(APP_ID, "b@example.com", IP);
+        service.checkOrganizationLogin("c@example.com", IP);
+
+        assertThatThrownBy(() -> service.checkUserLogin(APP_ID, "d@example.com", IP))
+                .isInstanceOf(TooManyAttemptsException.class);
+        assertThatCode(() -> service.checkUserLogin(APP_ID, "d@example.com", "198.51.100.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void successfulLoginRefillsTheIdentityButNotTheIp() {
+        LoginThrottleService service = service(3, 5, false);
+        attempts(service, "user@example.com", 3);
+
+        service.recordSuccessfulUserLogin(APP_ID, "user@example.com");
+
+        attempts(service, "user@example.com", 2);
+        assertThatThrownBy(() -> service.checkUserLogin(APP_ID, "user@example.com", IP))
+                .isInstanceOf(TooManyAttemptsException.class);
+    }
+
+    @Test
+    void clusterWideCounterRejectsOverTheLimit() {
+        // other nodes already used the identity's cluster-wide budget, the local bucket is still full
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenAnswer(call -> call.<List<String>>getArgument(1).get(0).contains(":user:") ? 4L : 1L);
+        LoginThrottleService service = service(3, 100, true);
+
+        assertThatThrownBy(() -> service.checkUserLogin(APP_ID, "user@example.com", IP))
+                .isInstanceOf(TooManyAttemptsException.class);
+    }
+
+    @Test
+    void successfulLoginResetsTheClusterWideIdentityCounter() {
+        LoginThrottleService service = service(3, 100, true);
+        attempts(service, "user@example.com", 3);
+
+        service.recordSuccessfulUserLogin(APP_ID, "user@example.com");
+
+        verify(redisTemplate).delete(argThat((String key) -> key.startsWith("login-throttle:user:")));
+        verify(redisTemplate, never()).delete(argThat((String key) -> key.startsWith("login-throttle:ip:")));
+        assertThatCode(() -> attempts(service, "user@example.com", 3)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void redisOutageFallsBackToLocalLimits() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        LoginThrottleService service = service(2, 100, true);
+
+        attempts(service, "user@example.com", 2);
+
+        assertThatThrownBy(() -> service.checkUserLogin(APP_ID, "user@example.com", IP))
+                .isInstanceOf(TooManyAttemptsException.class);
+    }
+}
@@ -0,0 +1,43 @@
+package org.cross.cauth.utils;
+
+import org.cross.cauth.Exception.InvalidPageCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+    @Test
+    void cursorRoundTripsTheId() {
+        UUID id = UuidV7Generator.generate();
+
+        String cursor = PageCursor.encode(id);
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]{22}");
+        assertThat(PageCursor.decode(cursor)).isEqualTo(id);
+    }
+
+    @Test
+    void missingCursorStartsBeforeTheFirstRow() {
+        assertThat(PageCursor.decode(null)).isEqualTo(PageCursor.START);
+        assertThat(PageCursor.decode(" ")).isEqualTo(PageCursor.START);
+    }
+
+    @Test
+    void foreignCursorsAreRejected() {
+        assertThatThrownBy(() -> PageCursor.decode("not a cursor!")).isInstanceOf(InvalidPageCursorException.class);
+        assertThatThrownBy(() -> PageCursor.decode(Base64.getUrlEncoder().encodeToString(new byte[8])))
+                .isInstanceOf(InvalidPageCursorException.class);
+    }
+
+    @Test
+    void pageSizeIsClamped() {
+        assertThat(PageCursor.clampSize(0, 200)).isEqualTo(1);
+        assertThat(PageCursor.clampSize(50, 200)).isEqualTo(50);
+        assertThat(PageCursor.clampSize(10_000, 200)).isEqualTo(200);
+    }
+}
@@ -0,0 +1,112 @@
+package org.cross.cauth.utils;
+
+import org.cross.cauth.Exception.InvalidCredentialsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RefreshTokenServiceTest {
+    private static final String APP_ID = "APP.TEST";
+    private static final String EMAIL = "user@example.com";
+
+    private FakeRedis redis;
+
+    @BeforeEach
+    void setUp() {
+        redis = new FakeRedis();
+    }
+
+    private RefreshTokenService service(long maxLifetimeSeconds) {
+        return new RefreshTokenService(redis.template(), new InBuiltIdGenerator(1), 3600, maxLifetimeSeconds);
+    }
+
+    @Test
+    void rotateHandsOutNextTokenOfTheFamily() {
+        RefreshTokenService service = service(7200);
+        String first = service.issue(APP_ID, EMAIL);
+
+        RefreshTokenService.RefreshedSession session = service.rotate(first);
+
+        assertThat(session.appId()).isEqualTo(APP_ID);
+        assertThat(session.email()).isEqualTo(EMAIL);
+        assertThat(session.refreshToken()).isNotEqualTo(first);
+        assertThat(service.rotate(session.refreshToken()).refreshToken()).isNotBlank();
+    }
+
+    @Test
+    void reusingAConsumedTokenRevokesTheFamily() {
+        RefreshTokenService service = service(7200);
+        String first = service.issue(APP_ID, EMAIL);
+        String second = service.rotate(first).refreshToken();
+
+        assertThatThrownBy(() -> service.rotate(first))
+                .isInstanceOf(InvalidCredentialsException.class)
+                .hasMessageContaining("reuse");
+        assertThatThrownBy(() -> service.rotate(second))
+                .isInstanceOf(InvalidCredentialsException.class);
+    }
+
+    @Test
+    void revokeAllEndsEverySessionOfTheUser() {
+        RefreshTokenService service = service(7200);
+        String laptop = service.issue(APP_ID, EMAIL);
+        String phone = service.rotate(service.issue(APP_ID, EMAIL)).refreshToken();
+
+        service.revokeAll(APP_ID, EMAIL);
+
+        assertThatThrownBy(() -> service.rotate(laptop)).isInstanceOf(InvalidCredentialsException.class);
+        assertThatThrownBy(() -> service.rotate(phone)).isInstanceOf(InvalidCredentialsException.class);
+    }
+
+    @Test
+    void secondPresentationOfTheSameTokenIsDetectedAsReuse() {
+        RefreshTokenService service = service(7200);
+        String token = service.issue(APP_ID, EMAIL);
+
+        // two clients racing with the same token, the script lets exactly one of them through
+        String winner = service.rotate(token).refreshToken();
+
+        assertThatThrownBy(() -> service.rotate(token))
+                .isInstanceOf(InvalidCredentialsException.class)
+                .hasMessageContaining("reuse");
+        assertThatThrownBy(() -> service.rotate(winner))
+                .isInstanceOf(InvalidCredentialsException.class);
+        assertThat(redis.keys()).noneMatch(key -> key.startsWith("refresh-family:"));
+    }
+
+    @Test
+    void unknownTokenIsRejectedWithoutTouchingOtherSessions() {
+        RefreshTokenService service = service(7200);
+        String token = service.issue(APP_ID, EMAIL);
+
+        assertThatThrownBy(() -> service.rotate("not-a-token"))
+                .isInstanceOf(InvalidCredentialsException.class)
+                .hasMessageContaining("invalid");
+        assertThat(service.rotate(token).email()).isEqualTo(EMAIL);
+    }
+
+    @Test
+    void rotatedTokenNeverOutlivesItsFamily() {
+        RefreshTokenService service = service(600);
+        String next = service.rotate(service.issue(APP_ID, EMAIL)).refreshToken();
+
+        assertThat(redis.ttlSeconds.get("refresh-token:" + next)).isBetween(1L, 600L);
+        assertThat(redis.ttlSeconds)
+                .hasEntrySatisfying(redis.keys().stream().filter(key -> key.startsWith("refresh-family:")).findFirst().orElseThrow(),
+                        ttl -> assertThat(ttl).isBetween(1L, 600L));
+    }
+
+    @Test
+    void familyDoesNotOutliveItsMaximumLifetime() throws InterruptedException {
+        RefreshTokenService service = service(1);
+        String token = service.issue(APP_ID, EMAIL);
+
+        Thread.sleep(1100);
+
+        assertThatThrownBy(() -> service.rotate(token))
+                .isInstanceOf(InvalidCredentialsException.class)
+                .hasMessageContaining("expired");
+    }
+}
@@ -0,0 +1,68 @@
+package org.cross.cauth.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 50_000;
+
+    @Test
+    void idsAreVersion7WithTheCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.generate();
+        long after = System.currentTimeMillis();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        // an exhausted counter carries into the next milliseconds, so ids may run slightly ahead of the clock
+        assertThat(id.getMostSignificantBits() >>> 16).isBetween(before, after + 1000);
+    }
+
+    @Test
+    void idsAreUniqueAndIncreasingPerThreadUnderContention() throws Exception {
+        Set<UUID> seen = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            List<Future<Boolean>> orderedPerThread = new ArrayList<>();
+
+            for (int t = 0; t < THREADS; t++) {
+                orderedPerThread.add(executor.submit(() -> {
+                    start.await();
+                    UUID previous = new UUID(0L, 0L);
+                    boolean ordered = true;
+
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        UUID id = UuidV7Generator.generate();
+                        // Postgres orders uuids bytewise, i.e. by the unsigned most significant bits first
+                        ordered &= Long.compareUnsigned(id.getMostSignificantBits(), previous.getMostSignificantBits()) > 0;
+                        seen.add(id);
+                        previous = id;
+                    }
+
+                    return ordered;
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<Boolean> ordered : orderedPerThread) {
+                assertThat(ordered.get()).isTrue();
+            }
+        }
+
+        assertThat(seen).hasSize(THREADS * IDS_PER_THREAD);
+    }
+}